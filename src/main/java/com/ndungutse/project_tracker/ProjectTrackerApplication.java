@@ -2,6 +2,7 @@ package com.ndungutse.project_tracker;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
@@ -9,11 +10,16 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching
+@EnableAsync
+@EnableScheduling
 @EnableJpaRepositories(basePackages = "com.ndungutse.project_tracker.repository")
 public class ProjectTrackerApplication {
+    private static final int STARTUP_STEPS = 10_000;
 
     @Bean
     public RedisCacheConfiguration cacheConfiguration() {
@@ -32,7 +38,10 @@ public class ProjectTrackerApplication {
     public static void main(String[] args) {
         // Disable for testing caching
         // System.setProperty("spring.devtools.restart.enabled", "false");
-        SpringApplication.run(ProjectTrackerApplication.class, args);
+        SpringApplication application = new SpringApplication(ProjectTrackerApplication.class);
+        // Keeps the startup steps for StartupReport and /actuator/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
     }
 
 }
@@ -5,6 +5,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,6 +16,14 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import io.micrometer.observation.ObservationRegistry;
+
+import com.ndungutse.project_tracker.service.AuditArchiveJob;
+import com.ndungutse.project_tracker.service.RoleRegistry;
+import com.ndungutse.project_tracker.service.SkillIndex;
 
 @Configuration
 public class AppConfig {
@@ -29,9 +41,46 @@ public class AppConfig {
     }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
-        return RedisCacheManager.builder(redisConnectionFactory)
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+            ObservationRegistry observationRegistry,
+            @Value("${tasks.workload.cache-ttl-ms:300000}") long workloadTtlMs) {
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
                 .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig())
+                // Overdue counts change with the date even without writes
+                .withCacheConfiguration("developerWorkload",
+                        RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMillis(workloadTtlMs)))
                 .build();
+        // Not a bean itself, so create the configured caches here
+        redisCacheManager.initializeCaches();
+        // Cache calls count towards the request's Redis time and are traced
+        return new TimedCacheManager(redisCacheManager, observationRegistry);
+    }
+
+    // Lets Hibernate send inserts and updates as JDBC batches, e.g. for bulk user imports
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(
+            @Value("${hibernate.jdbc.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+        };
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory redisConnectionFactory,
+            RoleRegistry roleRegistry,
+            SkillIndex skillIndex,
+            AuditArchiveJob auditArchiveJob) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        // Reload roles when another node changes them
+        container.addMessageListener(roleRegistry, new ChannelTopic(RoleRegistry.CHANNEL));
+        // Re-index users whose skills changed on another node
+        container.addMessageListener(skillIndex, new ChannelTopic(SkillIndex.CHANNEL));
+        // Re-read audit months archived on another node
+        container.addMessageListener(auditArchiveJob, new ChannelTopic(AuditArchiveJob.CHANNEL));
+        return container;
     }
 }
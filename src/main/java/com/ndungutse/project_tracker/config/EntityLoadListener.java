@@ -0,0 +1,54 @@
+package com.ndungutse.project_tracker.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counts entity loads and collection initializations into the current
+ * request's {@link RequestQueryStats}. Hibernate only fires the collection
+ * event when a lazy collection is initialized on its own, not for collections
+ * fetched together with their owner.
+ */
+@Component
+public class EntityLoadListener implements PostLoadEventListener, InitializeCollectionEventListener {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public EntityLoadListener(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_LOAD, this);
+        registry.appendListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestQueryStats.entityLoaded();
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        RequestQueryStats.collectionFetched(shortRole(event.getCollection().getRole()));
+    }
+
+    // com.ndungutse.project_tracker.model.Project.tasks -> Project.tasks
+    private static String shortRole(String role) {
+        int property = role.lastIndexOf('.');
+        int entity = property > 0 ? role.lastIndexOf('.', property - 1) : -1;
+        return role.substring(entity + 1);
+    }
+}
@@ -0,0 +1,176 @@
+package com.ndungutse.project_tracker.config;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationView;
+
+/**
+ * Turns observations into spans and keeps the most recent slow traces in
+ * memory, so they can be read from /actuator/traces without an external
+ * collector. A trace is a root observation (usually an HTTP request or a
+ * scheduled job) with every observation started under it; it is kept when the
+ * root took at least traces.slow-threshold-ms.
+ */
+@Component
+public class InMemoryTraceRecorder implements ObservationHandler<Observation.Context> {
+    private final int maxTraces;
+    private final int maxSpansPerTrace;
+    private final long slowThresholdNanos;
+    private final AtomicLong traceIds = new AtomicLong();
+
+    // Guarded by itself, newest first
+    private final Deque<TraceView> recent = new ArrayDeque<>();
+
+    public InMemoryTraceRecorder(
+            @Value("${traces.buffer-size:100}") int maxTraces,
+            @Value("${traces.max-spans-per-trace:500}") int maxSpansPerTrace,
+            @Value("${traces.slow-threshold-ms:500}") long slowThresholdMs) {
+        this.maxTraces = maxTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return true;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        Span parent = parentSpan(context);
+        Trace trace = parent != null ? parent.trace : new Trace(traceIds.incrementAndGet(), Instant.now(), System.nanoTime());
+        context.put(Span.class, new Span(trace, trace.spanIds.incrementAndGet(), parent != null ? parent.id : 0,
+                System.nanoTime()));
+    }
+
+    @Override
+    public void onError(Observation.Context context) {
+        Span span = context.get(Span.class);
+        if (span != null && context.getError() != null) {
+            span.error = context.getError().toString();
+        }
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        Span span = context.get(Span.class);
+        if (span == null) {
+            return;
+        }
+        Trace trace = span.trace;
+        long end = System.nanoTime();
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (KeyValue keyValue : context.getLowCardinalityKeyValues()) {
+            tags.put(keyValue.getKey(), keyValue.getValue());
+        }
+        String name = context.getContextualName() != null ? context.getContextualName() : context.getName();
+        SpanView view = new SpanView(span.id, span.parentId, name, tags, millis(span.start - trace.startNanos),
+                millis(end - span.start), span.error);
+
+        synchronized (trace) {
+            if (trace.spans.size() < maxSpansPerTrace) {
+                trace.spans.add(view);
+            } else {
+                trace.droppedSpans++;
+            }
+        }
+        if (span.parentId == 0 && end - trace.startNanos >= slowThresholdNanos) {
+            record(trace, view);
+        }
+    }
+
+    private void record(Trace trace, SpanView root) {
+        List<SpanView> spans;
+        int dropped;
+        synchronized (trace) {
+            spans = new ArrayList<>(trace.spans);
+            dropped = trace.droppedSpans;
+        }
+        spans.sort(Comparator.comparingDouble(SpanView::startMs));
+        TraceView view = new TraceView(trace.id, root.name(), trace.startedAt, root.durationMs(), root.error(),
+                dropped, spans);
+        synchronized (recent) {
+            recent.addFirst(view);
+            if (recent.size() > maxTraces) {
+                recent.removeLast();
+            }
+        }
+    }
+
+    // Recent slow traces, newest first, optionally only those at least minDurationMs long
+    public List<TraceView> recentTraces(Long minDurationMs) {
+        List<TraceView> traces;
+        synchronized (recent) {
+            traces = new ArrayList<>(recent);
+        }
+        if (minDurationMs != null) {
+            traces.removeIf(trace -> trace.durationMs() < minDurationMs);
+        }
+        return traces;
+    }
+
+    private static Span parentSpan(Observation.Context context) {
+        ObservationView parent = context.getParentObservation();
+        return parent != null ? parent.getContextView().get(Span.class) : null;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    public record TraceView(long traceId, String name, Instant startedAt, double durationMs, String error,
+            int droppedSpans, List<SpanView> spans) {
+    }
+
+    // Offsets are relative to the start of the trace
+    public record SpanView(int spanId, int parentSpanId, String name, Map<String, String> tags, double startMs,
+            double durationMs, String error) {
+    }
+
+    private static final class Trace {
+        private final long id;
+        private final Instant startedAt;
+        private final long startNanos;
+        private final AtomicInteger spanIds = new AtomicInteger();
+        // Guarded by this
+        private final List<SpanView> spans = new ArrayList<>();
+        private int droppedSpans;
+
+        private Trace(long id, Instant startedAt, long startNanos) {
+            this.id = id;
+            this.startedAt = startedAt;
+            this.startNanos = startNanos;
+        }
+    }
+
+    private static final class Span {
+        private final Trace trace;
+        private final int id;
+        private final int parentId;
+        private final long start;
+        private volatile String error;
+
+        private Span(Trace trace, int id, int parentId, long start) {
+            this.trace = trace;
+            this.id = id;
+            this.parentId = parentId;
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ndungutse.project_tracker.config;
+
+import org.hibernate.engine.spi.SessionEventListener;
+
+/**
+ * Adds the time Hibernate spends acquiring connections and executing
+ * statements and batches to the current request's JDBC time, and counts the
+ * executions in its {@link RequestQueryStats}. Created by
+ * Hibernate for every session (hibernate.session.events.auto), so it only
+ * needs to track one call at a time.
+ */
+public class JdbcTimingSessionListener implements SessionEventListener {
+    private long acquisitionStart;
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        acquisitionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        StoreTimings.add(StoreTimings.Store.JDBC, System.nanoTime() - acquisitionStart);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        long nanos = System.nanoTime() - statementStart;
+        StoreTimings.add(StoreTimings.Store.JDBC, nanos);
+        RequestQueryStats.executed(nanos, false);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        long nanos = System.nanoTime() - batchStart;
+        StoreTimings.add(StoreTimings.Store.JDBC, nanos);
+        RequestQueryStats.executed(nanos, true);
+    }
+}
@@ -0,0 +1,111 @@
+package com.ndungutse.project_tracker.config;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+/**
+ * Latency metrics: service method timers from {@code @Timed}, percentile
+ * histograms and SLO buckets on request and service timers, and the hooks
+ * that attribute request time to JDBC, MongoDB and Redis. Scraped from
+ * /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+    public static final String SERVICE_TIMER = "service.method";
+
+    // Times every public method of the services annotated with @Timed
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Publish histogram buckets (so p99 can be computed across instances) and
+     * a bucket at each SLO threshold (metrics.slo-ms) for request, store,
+     * service, repository and cache timers.
+     */
+    @Bean
+    public MeterFilter latencyDistributionFilter(@Value("${metrics.slo-ms:50,100,250,500,1000}") long[] sloMs) {
+        double[] slos = Arrays.stream(sloMs)
+                .mapToDouble(ms -> Duration.ofMillis(ms).toNanos())
+                .toArray();
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER || !isLatencyTimer(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .serviceLevelObjectives(slos)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    private static boolean isLatencyTimer(String name) {
+        return name.equals("http.server.requests")
+                || name.equals(StoreTimingFilter.TIMER)
+                || name.equals(SERVICE_TIMER)
+                || name.equals("repository")
+                || name.equals("cache");
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcTimingCustomizer() {
+        return properties -> properties.put("hibernate.session.events.auto",
+                JdbcTimingSessionListener.class.getName());
+    }
+
+    /**
+     * Hibernate statistics, published as hibernate.* meters by the
+     * hibernate-micrometer binder, and a statement inspector that hands each
+     * statement's SQL to the request's query stats for the slow-query log.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer queryStatsCustomizer(
+            @Value("${hibernate.statistics.enabled:true}") boolean statisticsEnabled) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.generate_statistics", statisticsEnabled);
+            properties.put("hibernate.session_factory.statement_inspector", (StatementInspector) sql -> {
+                RequestQueryStats.prepared(sql);
+                return sql;
+            });
+        };
+    }
+
+    // The synchronous driver notifies on the calling thread
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoTimingCustomizer() {
+        return settings -> settings.addCommandListener(new CommandListener() {
+            @Override
+            public void commandSucceeded(CommandSucceededEvent event) {
+                StoreTimings.add(StoreTimings.Store.MONGODB, event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+
+            @Override
+            public void commandFailed(CommandFailedEvent event) {
+                StoreTimings.add(StoreTimings.Store.MONGODB, event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.ndungutse.project_tracker.config;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Collects {@link RequestQueryStats} for every request and records them as
+ * distribution summaries tagged with method and uri, so an endpoint whose
+ * statement count grows with the data (N+1) shows up next to its latency.
+ * Slow statements go to the {@link SlowQueryLog} and lazy collection loads are
+ * logged. The stats are left on the request for tests to assert on. Ordered
+ * ahead of Spring Security, like {@link StoreTimingFilter}, so the user lookup
+ * of JwtAuthenticationFilter is counted.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 11)
+public class QueryStatsFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(QueryStatsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final SlowQueryLog slowQueryLog;
+    private final boolean warnOnLazyLoad;
+
+    public QueryStatsFilter(
+            MeterRegistry meterRegistry,
+            SlowQueryLog slowQueryLog,
+            @Value("${hibernate.lazy-load.warn:true}") boolean warnOnLazyLoad) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryLog = slowQueryLog;
+        this.warnOnLazyLoad = warnOnLazyLoad;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats.start(slowQueryLog.thresholdNanos());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueryStats stats = RequestQueryStats.stop();
+            // Streaming responses finish on another thread, like in StoreTimingFilter
+            if (stats != null && !request.isAsyncStarted()) {
+                request.setAttribute(RequestQueryStats.ATTRIBUTE, stats);
+                record(request, StoreTimingFilter.uri(request, response), stats);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, String uri, RequestQueryStats stats) {
+        String method = request.getMethod();
+        summary("http.server.requests.statements", "JDBC statements executed per request", method, uri)
+                .record(stats.getStatements());
+        summary("http.server.requests.entity.loads", "Entities loaded by Hibernate per request", method, uri)
+                .record(stats.getEntityLoads());
+        summary("http.server.requests.collection.fetches", "Lazy collections initialized per request", method, uri)
+                .record(stats.getCollectionFetches());
+
+        for (RequestQueryStats.SlowStatement statement : stats.getSlowStatements()) {
+            slowQueryLog.record(method, uri, statement);
+        }
+        if (warnOnLazyLoad && !stats.getLazyLoads().isEmpty()) {
+            logger.warn("{} {} initialized lazy collections {}", method, uri, stats.getLazyLoads());
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ndungutse.project_tracker.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Wraps every call to a Spring Data repository of this application in a
+ * "repository" observation, tagged with the repository, method and store.
+ * The observation is a child of whatever observation is current, usually the
+ * HTTP request, so slow requests can be broken down by database call.
+ */
+@Component
+public class RepositoryObservationAdvisor extends StaticMethodMatcherPointcutAdvisor implements MethodInterceptor {
+    private static final String REPOSITORY_PACKAGE = "com.ndungutse.project_tracker.repository";
+
+    // Looked up lazily so the advisor does not force the registry to be created before the proxies
+    private final ObjectProvider<ObservationRegistry> observationRegistry;
+    private final Map<Class<?>, RepositoryTags> tagsByClass = new ConcurrentHashMap<>();
+
+    public RepositoryObservationAdvisor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.observationRegistry = observationRegistry;
+        setAdvice(this);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return Repository.class.isAssignableFrom(targetClass) && repositoryInterface(targetClass) != null
+                && method.getDeclaringClass() != Object.class;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ObservationRegistry registry = observationRegistry.getIfAvailable();
+        if (registry == null || registry.isNoop() || invocation.getThis() == null) {
+            return invocation.proceed();
+        }
+        RepositoryTags tags = tagsByClass.computeIfAbsent(invocation.getThis().getClass(), RepositoryObservationAdvisor::tagsOf);
+
+        Observation observation = Observation.createNotStarted("repository", registry)
+                .contextualName(tags.repository() + "." + invocation.getMethod().getName())
+                .lowCardinalityKeyValue("repository", tags.repository())
+                .lowCardinalityKeyValue("method", invocation.getMethod().getName())
+                .lowCardinalityKeyValue("store", tags.store())
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private static RepositoryTags tagsOf(Class<?> proxyClass) {
+        Class<?> repository = repositoryInterface(proxyClass);
+        String store = repository != null && MongoRepository.class.isAssignableFrom(repository) ? "mongodb" : "jdbc";
+        return new RepositoryTags(repository != null ? repository.getSimpleName() : proxyClass.getSimpleName(), store);
+    }
+
+    // The application's repository interface implemented by a Spring Data proxy
+    private static Class<?> repositoryInterface(Class<?> proxyClass) {
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(proxyClass)) {
+            if (candidate.getPackageName().equals(REPOSITORY_PACKAGE) && Repository.class.isAssignableFrom(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private record RepositoryTags(String repository, String store) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.ndungutse.project_tracker.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * What Hibernate did on the current request thread: statements executed,
+ * entities loaded, collections initialized on access and statements slower
+ * than the slow-query threshold. Filled by {@link EntityLoadListener}, the
+ * statement inspector and {@link JdbcTimingSessionListener}, and read by
+ * {@link QueryStatsFilter}, which leaves the finished stats on the request
+ * under {@link #ATTRIBUTE}.
+ */
+public final class RequestQueryStats {
+    public static final String ATTRIBUTE = RequestQueryStats.class.getName();
+
+    // Bounds memory for requests that run away, the counters keep counting
+    private static final int MAX_RECORDED = 100;
+
+    private static final ThreadLocal<RequestQueryStats> current = new ThreadLocal<>();
+
+    private final long slowThresholdNanos;
+    private int statements;
+    private int entityLoads;
+    private int collectionFetches;
+    private final List<String> lazyLoads = new ArrayList<>();
+    private final List<SlowStatement> slowStatements = new ArrayList<>();
+    // Last SQL handed to the inspector, the one the next single execution runs. A batch
+    // may run after the SQL of a later statement was prepared, so for batches it is a guess.
+    private String preparedSql;
+
+    private RequestQueryStats(long slowThresholdNanos) {
+        this.slowThresholdNanos = slowThresholdNanos;
+    }
+
+    public static void start(long slowThresholdNanos) {
+        current.set(new RequestQueryStats(slowThresholdNanos));
+    }
+
+    // Null when nothing was started
+    public static RequestQueryStats stop() {
+        RequestQueryStats stats = current.get();
+        current.remove();
+        return stats;
+    }
+
+    // Stats a finished request left behind, or null when it did not go through the filter
+    public static RequestQueryStats of(HttpServletRequest request) {
+        return (RequestQueryStats) request.getAttribute(ATTRIBUTE);
+    }
+
+    static void prepared(String sql) {
+        RequestQueryStats stats = current.get();
+        if (stats != null) {
+            stats.preparedSql = sql;
+        }
+    }
+
+    static void executed(long nanos, boolean batch) {
+        RequestQueryStats stats = current.get();
+        if (stats == null) {
+            return;
+        }
+        stats.statements++;
+        if (nanos >= stats.slowThresholdNanos && stats.slowStatements.size() < MAX_RECORDED) {
+            stats.slowStatements.add(new SlowStatement(stats.preparedSql, TimeUnit.NANOSECONDS.toMillis(nanos),
+                    batch)));
+        }
+    }
+
+    static void entityLoaded() {
+        RequestQueryStats stats = current.get();
+        if (stats != null) {
+            stats.entityLoads++;
+        }
+    }
+
+    static void collectionFetched(String role) {
+        RequestQueryStats stats = current.get();
+        if (stats == null) {
+            return;
+        }
+        stats.collectionFetches++;
+        if (stats.lazyLoads.size() < MAX_RECORDED) {
+            stats.lazyLoads.add(role);
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    public int getCollectionFetches() {
+        return collectionFetches;
+    }
+
+    // Collection roles, e.g. Project.tasks, in the order they were initialized
+    public List<String> getLazyLoads() {
+        return Collections.unmodifiableList(lazyLoads);
+    }
+
+    public List<SlowStatement> getSlowStatements() {
+        return Collections.unmodifiableList(slowStatements);
+    }
+
+    /**
+     * Fail with an AssertionError when the request ran more than maxStatements
+     * statements or initialized a lazy collection that is not listed. Meant
+     * for MockMvc tests, e.g.
+     * {@code RequestQueryStats.of(result.getRequest()).assertWithin(2, "Project.tasks")}.
+     */
+    public void assertWithin(int maxStatements, String... allowedLazyLoads) {
+        List<String> unexpected = new ArrayList<>(lazyLoads);
+        unexpected.removeAll(List.of(allowedLazyLoads));
+        if (statements > maxStatements || !unexpected.isEmpty()) {
+            throw new AssertionError("Expected at most " + maxStatements + " statements and no lazy loads other than "
+                    + List.of(allowedLazyLoads) + " but got " + statements + " statements and lazy loads of "
+                    + unexpected);
+        }
+    }
+
+    // For a batch, sql is the last statement prepared before it ran and may belong to another batch
+    public record SlowStatement(String sql, long durationMs, boolean batch) {
+    }
+}
@@ -1,7 +1,5 @@
 package com.ndungutse.project_tracker.config;
 
-import java.util.Optional;
-
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,7 +13,6 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -23,7 +20,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ndungutse.project_tracker.dto.LoginResponse;
 import com.ndungutse.project_tracker.model.User;
-import com.ndungutse.project_tracker.repository.UserRepository;
+import com.ndungutse.project_tracker.security.CustomOidcUser;
 import com.ndungutse.project_tracker.security.CustomUserDetails;
 import com.ndungutse.project_tracker.security.CustomUserDetailsService;
 import com.ndungutse.project_tracker.security.JwtAuthenticationFilter;
@@ -41,20 +38,17 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthFilter;
 
     private final JwtUtils jwtUtils;
-    private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
     private final AuthenticationEntryPoint customAuthenticationEntryPoint;
 
     public SecurityConfig(CustomUserDetailsService userDetailsService,
             JwtAuthenticationFilter jwtAuthFilter,
             JwtUtils jwtUtils,
-            UserRepository userRepository,
             ObjectMapper objectMapper,
             AuthenticationEntryPoint customAuthenticationEntryPoint) {
         this.userDetailsService = userDetailsService;
         this.jwtAuthFilter = jwtAuthFilter;
         this.jwtUtils = jwtUtils;
-        this.userRepository = userRepository;
         this.objectMapper = objectMapper;
         this.customAuthenticationEntryPoint = customAuthenticationEntryPoint;
     }
@@ -68,24 +62,22 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(
                                 "/api/v1/auth/**",
-                                "/actuator/**",
+                                "/actuator/health", "/actuator/health/**", "/actuator/info",
                                 "/api-docs/**", "/swagger-ui/**", "/swagger-ui.html",
                                 "/oauth2/**",
                                 "/login/oauth2/**")
                         .permitAll()
                         .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+                        // Metrics and diagnostics endpoints, scrapers use an ADMIN token
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated())
                 .oauth2Login(oauth2Login -> oauth2Login
                         .loginProcessingUrl("/login/oauth2/code/google")
                         .userInfoEndpoint(userServiceInfo -> userServiceInfo.oidcUserService(customOidcUserService))
                         .successHandler((request, response, authentication) -> {
-                            OidcUser oidcUser = (OidcUser) authentication.getPrincipal();
-                            // Get the authenticated user's email
-                            String email = oidcUser.getEmail();
-                            // Find the user in our database
-                            Optional<User> userOpt = userRepository.findByEmail(email);
-                            if (userOpt.isPresent()) {
-                                User user = userOpt.get();
+                            // The user was provisioned while loading the OIDC principal
+                            if (authentication.getPrincipal() instanceof CustomOidcUser oidcUser) {
+                                User user = oidcUser.getUser();
 
                                 // Create CustomUserDetails for JWT generation
                                 CustomUserDetails userDetails = new CustomUserDetails(user);
@@ -0,0 +1,27 @@
+package com.ndungutse.project_tracker.config;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/slowqueries: the recent slow statements kept by {@link SlowQueryLog}.
+ * ADMIN only (SecurityConfig), it shows raw SQL and the endpoints that ran it.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueriesEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public List<SlowQueryLog.SlowQuery> slowQueries(@Nullable String uri) {
+        return slowQueryLog.recentQueries(uri);
+    }
+}
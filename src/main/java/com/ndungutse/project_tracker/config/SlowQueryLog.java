@@ -0,0 +1,83 @@
+package com.ndungutse.project_tracker.config;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Statements that took longer than hibernate.slow-query.threshold-ms, with the
+ * endpoint that ran them. Each one is logged and the most recent are kept for
+ * /actuator/slowqueries. For a JDBC batch the SQL is the last statement
+ * prepared before it ran, which with hibernate.order_inserts can belong to
+ * the next batch, so batches are marked as such.
+ */
+@Component
+public class SlowQueryLog {
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private final long thresholdNanos;
+    private final int maxEntries;
+    private final Counter slowCounter;
+    private final Deque<SlowQuery> recent = new ArrayDeque<>();
+
+    public SlowQueryLog(
+            MeterRegistry meterRegistry,
+            @Value("${hibernate.slow-query.threshold-ms:200}") long thresholdMs,
+            @Value("${hibernate.slow-query.buffer-size:100}") int maxEntries) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.maxEntries = maxEntries;
+        this.slowCounter = Counter.builder("hibernate.slow.queries")
+                .description("Number of statements slower than the slow-query threshold")
+                .register(meterRegistry);
+    }
+
+    public long thresholdNanos() {
+        return thresholdNanos;
+    }
+
+    public void record(String method, String uri, RequestQueryStats.SlowStatement statement) {
+        slowCounter.increment();
+        if (statement.batch()) {
+            logger.warn("Slow batch ({} ms) from {} {}, SQL approximate (last prepared): {}",
+                    statement.durationMs(), method, uri, statement.sql());
+        } else {
+            logger.warn("Slow query ({} ms) from {} {}: {}", statement.durationMs(), method, uri, statement.sql());
+        }
+        SlowQuery slowQuery = new SlowQuery(Instant.now(), method, uri, statement.sql(), statement.durationMs(),
+                statement.batch());
+        synchronized (recent) {
+            recent.addFirst(slowQuery);
+            if (recent.size() > maxEntries) {
+                recent.removeLast();
+            }
+        }
+    }
+
+    // Newest first, optionally only those from one route template
+    public List<SlowQuery> recentQueries(String uri) {
+        List<SlowQuery> queries;
+        synchronized (recent) {
+            queries = new ArrayList<>(recent);
+        }
+        if (uri != null) {
+            queries.removeIf(query -> !query.uri().equals(uri));
+        }
+        return queries;
+    }
+
+    // When batch is set, sql is approximate, see RequestQueryStats.SlowStatement
+    public record SlowQuery(Instant loggedAt, String method, String uri, String sql, long durationMs,
+            boolean batch) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.ndungutse.project_tracker.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Startup time. With spring.main.lazy-initialization=true beans are created
+ * on first use; the exclude filter keeps the beans that nothing depends on
+ * but that must run at startup eager. Independently of that, springdoc is
+ * deferred: its beans, and the OpenAPI definition, are only built when the
+ * API docs or Swagger UI are first requested (startup.defer-springdoc).
+ */
+@Configuration
+public class StartupConfig {
+
+    // EntityLoadListener registers itself with Hibernate when created, and @Scheduled
+    // methods (AuditArchiveJob, AuditRollupJob, ...) are only scheduled once their bean exists
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeansExcludeFilter() {
+        return (beanName, definition, beanType) -> beanType != null
+                && (EntityLoadListener.class.isAssignableFrom(beanType) || hasScheduledMethods(beanType));
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType, (ReflectionUtils.MethodFilter) method ->
+                AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)).isEmpty();
+    }
+
+    // Static so it runs before any bean is created
+    @Bean
+    @ConditionalOnProperty(name = "startup.defer-springdoc", havingValue = "true", matchIfMissing = true)
+    public static BeanFactoryPostProcessor deferredSpringdocPostProcessor() {
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                String source = sourceClassName(beanFactory, definition);
+                if (source != null && (source.startsWith("org.springdoc.")
+                        || source.startsWith(OpenApiConfig.class.getName()))) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    // The bean class, or the configuration class declaring a @Bean method (possibly its CGLIB subclass)
+    private static String sourceClassName(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        if (definition.getBeanClassName() != null) {
+            return definition.getBeanClassName();
+        }
+        String factoryBeanName = definition.getFactoryBeanName();
+        if (factoryBeanName != null && beanFactory.containsBeanDefinition(factoryBeanName)) {
+            return beanFactory.getBeanDefinition(factoryBeanName).getBeanClassName();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,71 @@
+package com.ndungutse.project_tracker.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs the time to ready and the beans that took longest to create, from the
+ * startup steps buffered by the application (see ProjectTrackerApplication).
+ * A bean's time includes the beans created for it. The full timeline is at
+ * /actuator/startup, which is ADMIN only.
+ */
+@Component
+public class StartupReport {
+    private static final Logger logger = LoggerFactory.getLogger(StartupReport.class);
+
+    private final boolean enabled;
+    private final int topBeans;
+
+    public StartupReport(
+            @Value("${startup.report.enabled:true}") boolean enabled,
+            @Value("${startup.report.top-beans:20}") int topBeans) {
+        this.enabled = enabled;
+        this.topBeans = topBeans;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        if (!enabled || !(event.getApplicationContext().getApplicationStartup()
+                instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+
+        List<BeanTime> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : startup.getBufferedTimeline().getEvents()) {
+            StartupStep step = timelineEvent.getStartupStep();
+            if (!step.getName().equals("spring.beans.instantiate")) {
+                continue;
+            }
+            for (StartupStep.Tag tag : step.getTags()) {
+                if (tag.getKey().equals("beanName")) {
+                    beans.add(new BeanTime(tag.getValue(), timelineEvent.getDuration()));
+                }
+            }
+        }
+        beans.sort(Comparator.comparing(BeanTime::duration).reversed());
+
+        StringBuilder report = new StringBuilder();
+        for (BeanTime bean : beans.subList(0, Math.min(topBeans, beans.size()))) {
+            report.append(System.lineSeparator())
+                    .append(String.format("%8d ms  %s", bean.duration().toMillis(), bean.name()));
+        }
+        Duration timeTaken = event.getTimeTaken();
+        logger.info("Ready in {} ms, {} beans created, slowest:{}",
+                timeTaken != null ? timeTaken.toMillis() : "?", beans.size(), report);
+    }
+
+    private record BeanTime(String name, Duration duration) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.ndungutse.project_tracker.config;
+
+import java.util.Locale;
+
+/**
+ * Time the current request thread spent waiting on each backing store. The
+ * store clients add to it as their calls complete and {@link StoreTimingFilter}
+ * records the totals once the request is done. Work done on other threads
+ * (the audit writer, async tasks) is not attributed to the request.
+ */
+public final class StoreTimings {
+
+    public enum Store {
+        JDBC, MONGODB, REDIS;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final ThreadLocal<long[]> current = new ThreadLocal<>();
+
+    private StoreTimings() {
+    }
+
+    public static void start() {
+        current.set(new long[Store.values().length]);
+    }
+
+    // Nanoseconds per store, indexed by ordinal, or null when nothing was started
+    public static long[] stop() {
+        long[] nanos = current.get();
+        current.remove();
+        return nanos;
+    }
+
+    public static void add(Store store, long nanos) {
+        long[] totals = current.get();
+        if (totals != null) {
+            totals[store.ordinal()] += nanos;
+        }
+    }
+}
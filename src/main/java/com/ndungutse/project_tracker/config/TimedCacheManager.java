@@ -0,0 +1,143 @@
+package com.ndungutse.project_tracker.config;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Adds the time spent in blocking cache calls to the current request's Redis
+ * time and wraps each call in a "cache" observation, so it shows up as a span
+ * of the request. Caches are wrapped once and reused.
+ */
+public class TimedCacheManager implements CacheManager {
+    private final CacheManager delegate;
+    private final ObservationRegistry observationRegistry;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TimedCacheManager(CacheManager delegate, ObservationRegistry observationRegistry) {
+        this.delegate = delegate;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        return target != null ? caches.computeIfAbsent(name, key -> new TimedCache(target, observationRegistry)) : null;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    private static final class TimedCache implements Cache {
+        private final Cache delegate;
+        private final ObservationRegistry observationRegistry;
+
+        TimedCache(Cache delegate, ObservationRegistry observationRegistry) {
+            this.delegate = delegate;
+            this.observationRegistry = observationRegistry;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return observe("get", () -> delegate.get(key));
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return observe("get", () -> delegate.get(key, type));
+        }
+
+        // Not timed, the loader would be counted as Redis time
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return delegate.get(key, valueLoader);
+        }
+
+        @Override
+        public CompletableFuture<?> retrieve(Object key) {
+            return delegate.retrieve(key);
+        }
+
+        @Override
+        public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+            return delegate.retrieve(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            observe("put", () -> {
+                delegate.put(key, value);
+                return null;
+            });
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return observe("putIfAbsent", () -> delegate.putIfAbsent(key, value));
+        }
+
+        @Override
+        public void evict(Object key) {
+            observe("evict", () -> {
+                delegate.evict(key);
+                return null;
+            });
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            return observe("evict", () -> delegate.evictIfPresent(key));
+        }
+
+        @Override
+        public void clear() {
+            observe("clear", () -> {
+                delegate.clear();
+                return null;
+            });
+        }
+
+        @Override
+        public boolean invalidate() {
+            return observe("clear", () -> delegate.invalidate());
+        }
+
+        private <T> T observe(String operation, Supplier<T> call) {
+            long start = System.nanoTime();
+            try {
+                return Observation.createNotStarted("cache", observationRegistry)
+                        .contextualName("cache " + operation + " " + delegate.getName())
+                        .lowCardinalityKeyValue("cache", delegate.getName())
+                        .lowCardinalityKeyValue("operation", operation)
+                        .observe(call);
+            } finally {
+                StoreTimings.add(StoreTimings.Store.REDIS, System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.ndungutse.project_tracker.config;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/traces: the recent slow traces kept by {@link InMemoryTraceRecorder}.
+ * ADMIN only (SecurityConfig), the spans carry request URLs and their tags.
+ */
+@Component
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+    private final InMemoryTraceRecorder traceRecorder;
+
+    public TracesEndpoint(InMemoryTraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    @ReadOperation
+    public List<InMemoryTraceRecorder.TraceView> traces(@Nullable Long minDurationMs) {
+        return traceRecorder.recentTraces(minDurationMs);
+    }
+}
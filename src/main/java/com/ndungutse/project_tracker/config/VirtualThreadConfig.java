@@ -0,0 +1,90 @@
+package com.ndungutse.project_tracker.config;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Extra wiring for the opt-in virtual thread mode. Setting
+ * spring.threads.virtual.enabled=true makes Spring Boot run Tomcat requests,
+ * {@code @Async} methods and scheduled jobs on virtual threads; this puts an
+ * admission guard in front of the JDBC pool, which is the one resource that
+ * cannot grow with the number of threads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    /**
+     * Wraps the DataSource in an {@link AdmissionControlledDataSource}. The
+     * number of permits (db.admission.max-concurrent) is set apart from the
+     * pool size and kept below it by db.admission.reserved-connections, so an
+     * admitted caller finds a free connection while Hikari retires and
+     * replaces others, instead of queueing a second time inside the pool.
+     * Callers wait at most db.admission.timeout-ms for a permit; after that
+     * the request fails with 503 Service Unavailable (see
+     * GlobalExceptionHandler). The timeout should stay well below Hikari's
+     * connection timeout. Static so the post-processor does not force this
+     * configuration to be created early.
+     */
+    @Bean
+    public static BeanPostProcessor admissionControlledDataSourcePostProcessor(
+            @Value("${db.admission.max-concurrent:0}") int maxConcurrent,
+            @Value("${db.admission.reserved-connections:2}") int reservedConnections,
+            @Value("${db.admission.timeout-ms:5000}") long timeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof AdmissionControlledDataSource) {
+                    return bean;
+                }
+                HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class,
+                        HikariDataSource.class);
+                int poolSize = hikari != null ? hikari.getMaximumPoolSize() : 10;
+                int limit = Math.max(1, poolSize - reservedConnections);
+                int permits = maxConcurrent > 0 ? maxConcurrent : limit;
+                if (permits > limit) {
+                    logger.warn("db.admission.max-concurrent={} leaves fewer than {} spare connections in a pool of {}, "
+                            + "using {}", maxConcurrent, reservedConnections, poolSize, limit);
+                    permits = limit;
+                }
+                logger.info("Admitting at most {} concurrent database users to {} (pool size {}, wait {}ms)",
+                        permits, beanName, poolSize, timeoutMs);
+                return new AdmissionControlledDataSource(dataSource, permits, timeoutMs);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder admissionControlledDataSourceMetrics(DataSource dataSource) {
+        return registry -> {
+            if (!(dataSource instanceof AdmissionControlledDataSource guard)) {
+                return;
+            }
+            Gauge.builder("db.admission.waiting", guard, AdmissionControlledDataSource::getWaiting)
+                    .description("Threads waiting to be admitted to the JDBC pool")
+                    .register(registry);
+            Gauge.builder("db.admission.available", guard, AdmissionControlledDataSource::getAvailable)
+                    .description("Free JDBC admission permits")
+                    .register(registry);
+            FunctionCounter.builder("db.admission.rejected", guard, AdmissionControlledDataSource::getRejected)
+                    .description("Callers that gave up waiting for a JDBC admission permit")
+                    .register(registry);
+        };
+    }
+}
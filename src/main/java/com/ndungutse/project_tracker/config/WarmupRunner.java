@@ -0,0 +1,212 @@
+package com.ndungutse.project_tracker.config;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ndungutse.project_tracker.dto.ProjectDTO;
+import com.ndungutse.project_tracker.dto.TaskDTO;
+import com.ndungutse.project_tracker.dto.mapper.ProjectMapper;
+import com.ndungutse.project_tracker.dto.mapper.TaskMapper;
+import com.ndungutse.project_tracker.model.Project;
+import com.ndungutse.project_tracker.model.Task;
+import com.ndungutse.project_tracker.model.User;
+import com.ndungutse.project_tracker.repository.ProjectRepository;
+import com.ndungutse.project_tracker.repository.TaskRepository;
+import com.ndungutse.project_tracker.repository.UserRepository;
+import com.ndungutse.project_tracker.security.JwtUtils;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs the hot read paths before the application reports ready, so the first
+ * requests after a deploy do not run them interpreted. Spring Boot calls
+ * runners before it publishes ReadinessState.ACCEPTING_TRAFFIC, so the
+ * readiness probe stays down until this returns.
+ *
+ * The common repository queries run once, read-only with ids that match
+ * nothing, which fills Hibernate's query plan cache. Then each round maps
+ * synthetic tasks and projects with the MapStruct mappers, writes and reads
+ * them with Jackson and signs and parses a JWT. Rounds repeat until their time
+ * stops improving (warmup.stable-rounds rounds within
+ * warmup.tolerance-percent of each other) or warmup.max-duration-ms runs out;
+ * only these in-memory paths are timed, database latency would hide whether
+ * they have settled.
+ */
+@Component
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final int SYNTHETIC_TASKS = 50;
+    private static final long NO_SUCH_ID = -1L;
+
+    private final TaskMapper taskMapper;
+    private final ProjectMapper projectMapper;
+    private final ObjectMapper objectMapper;
+    private final JwtUtils jwtUtils;
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int iterationsPerRound;
+    private final int stableRounds;
+    private final double tolerance;
+    private final long maxDurationNanos;
+
+    // NaN until the warm-up has finished
+    private volatile double warmupSeconds = Double.NaN;
+
+    public WarmupRunner(
+            TaskMapper taskMapper,
+            ProjectMapper projectMapper,
+            ObjectMapper objectMapper,
+            JwtUtils jwtUtils,
+            TaskRepository taskRepository,
+            ProjectRepository projectRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${warmup.iterations-per-round:200}") int iterationsPerRound,
+            @Value("${warmup.stable-rounds:3}") int stableRounds,
+            @Value("${warmup.tolerance-percent:10}") int tolerancePercent,
+            @Value("${warmup.max-duration-ms:30000}") long maxDurationMs) {
+        this.taskMapper = taskMapper;
+        this.projectMapper = projectMapper;
+        this.objectMapper = objectMapper;
+        this.jwtUtils = jwtUtils;
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.iterationsPerRound = iterationsPerRound;
+        this.stableRounds = stableRounds;
+        this.tolerance = tolerancePercent / 100.0;
+        this.maxDurationNanos = TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+
+        Gauge.builder("warmup.duration", this, runner -> runner.warmupSeconds)
+                .description("Time spent warming up before reporting ready")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Task> tasks = syntheticTasks();
+        UserDetails user = org.springframework.security.core.userdetails.User.withUsername("warmup")
+                .password("")
+                .authorities(List.of())
+                .build();
+
+        long start = System.nanoTime();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> exerciseQueries());
+        } catch (RuntimeException e) {
+            // The database being unavailable must not hold the application back
+            logger.warn("Warm-up queries failed, continuing without them: {}", e.getMessage());
+        }
+
+        long previous = 0;
+        long first = 0;
+        int rounds = 0;
+        int stable = 0;
+        while (stable < stableRounds && System.nanoTime() - start < maxDurationNanos) {
+            long roundStart = System.nanoTime();
+            try {
+                for (int i = 0; i < iterationsPerRound; i++) {
+                    exerciseInMemory(tasks, user);
+                }
+            } catch (Exception e) {
+                logger.warn("Warm-up stopped, the in-memory paths failed", e);
+                break;
+            }
+            long elapsed = System.nanoTime() - roundStart;
+
+            rounds++;
+            if (rounds == 1) {
+                first = elapsed;
+            } else if (Math.abs(elapsed - previous) <= previous * tolerance) {
+                stable++;
+            } else {
+                stable = 0;
+            }
+            previous = elapsed;
+        }
+
+        long warmupMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        warmupSeconds = warmupMs / 1000.0;
+        if (stable >= stableRounds) {
+            logger.info("Warm-up stabilized after {} rounds in {} ms, round time {} ms -> {} ms",
+                    rounds, warmupMs, TimeUnit.NANOSECONDS.toMillis(first), TimeUnit.NANOSECONDS.toMillis(previous));
+        } else {
+            logger.info("Warm-up stopped after {} rounds in {} ms without stabilizing, round time {} ms -> {} ms",
+                    rounds, warmupMs, TimeUnit.NANOSECONDS.toMillis(first), TimeUnit.NANOSECONDS.toMillis(previous));
+        }
+    }
+
+    private void exerciseInMemory(List<Task> tasks, UserDetails user) throws Exception {
+        List<TaskDTO> taskDtos = taskMapper.toDtoList(tasks);
+        ProjectDTO projectDto = projectMapper.toDto(tasks.get(0).getProject());
+
+        byte[] json = objectMapper.writeValueAsBytes(taskDtos);
+        objectMapper.readValue(json, TaskDTO[].class);
+        objectMapper.readValue(objectMapper.writeValueAsBytes(projectDto), ProjectDTO.class);
+
+        // The same parser and signature check as JwtAuthenticationFilter
+        jwtUtils.getUserNameFromJwtToken(jwtUtils.generateJwtTokenFromUsername(user));
+    }
+
+    private void exerciseQueries() {
+        taskRepository.findById(NO_SUCH_ID);
+        taskRepository.findByProjectId(NO_SUCH_ID);
+        taskRepository.findByAssignedUserId(NO_SUCH_ID);
+        projectRepository.findById(NO_SUCH_ID);
+        projectRepository.findAllBy(PageRequest.of(0, 1));
+        userRepository.findPageAfter(Long.MAX_VALUE, "", "", PageRequest.of(0, 1));
+    }
+
+    // Ids are never persisted, these only feed the mappers and Jackson
+    private static List<Task> syntheticTasks() {
+        Project project = Project.builder()
+                .id(1L)
+                .name("Warm-up project")
+                .description("Synthetic project used to warm up the read paths")
+                .deadline(LocalDate.now().plusDays(30))
+                .build();
+        User user = User.builder()
+                .id(1L)
+                .username("warmup")
+                .email("warmup@example.com")
+                .build();
+
+        List<Task> tasks = new ArrayList<>(SYNTHETIC_TASKS);
+        for (long i = 1; i <= SYNTHETIC_TASKS; i++) {
+            tasks.add(Task.builder()
+                    .id(i)
+                    .title("Warm-up task " + i)
+                    .description("Synthetic task used to warm up the read paths")
+                    .status(i % 2 == 0)
+                    .dueDate(LocalDate.now().plusDays(i))
+                    .project(project)
+                    .assignedUser(user)
+                    .build());
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,75 @@
+package com.ndungutse.project_tracker.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ndungutse.project_tracker.dto.SkillMatchDTO;
+import com.ndungutse.project_tracker.dto.WorkloadDTO;
+import com.ndungutse.project_tracker.service.TaskService;
+import com.ndungutse.project_tracker.service.UserService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/v1/users")
+@Tag(name = "Developer", description = "Developer workload and search APIs")
+public class DeveloperController {
+
+    private final TaskService taskService;
+    private final UserService userService;
+
+    public DeveloperController(TaskService taskService, UserService userService) {
+        this.taskService = taskService;
+        this.userService = userService;
+    }
+
+    // Get the workload of every developer
+    @Operation(summary = "Get developer workload", description = "Returns the open, done and overdue task counts of every developer")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved workload", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = WorkloadDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Unsupported sort", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Access denied - Only MANAGER or ADMIN roles can view workload", content = @Content)
+    })
+    @GetMapping("/workload")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<List<WorkloadDTO>> getWorkload(
+            @Parameter(description = "Sort order: 'load' (most open tasks first) or 'username'") @RequestParam(defaultValue = "load") String sort) {
+        List<WorkloadDTO> workload = taskService.getDeveloperWorkload(sort);
+        return new ResponseEntity<>(workload, HttpStatus.OK);
+    }
+
+    // Search developers by skill
+    @Operation(summary = "Search users by skill", description = "Returns the users having all (or any) of the given comma-separated skills. Skills are matched case-insensitively.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved matching users", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = SkillMatchDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "No skills or unsupported rank", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Access denied - Only MANAGER or ADMIN roles can search users", content = @Content)
+    })
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<List<SkillMatchDTO>> searchBySkills(
+            @Parameter(description = "Comma-separated skills, e.g. 'Java,Spring Boot'", required = true) @RequestParam String skills,
+            @Parameter(description = "'all' to require every skill, 'any' for at least one") @RequestParam(defaultValue = "all") String match,
+            @Parameter(description = "Order: 'openTasks' (least busy first) or 'id'") @RequestParam(defaultValue = "openTasks") String rank,
+            @Parameter(description = "Maximum number of users to return (defaults to 50, capped by the server)") @RequestParam(defaultValue = "50") int limit) {
+        if (!match.equals("all") && !match.equals("any")) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        List<SkillMatchDTO> matches = userService.searchBySkills(skills, match.equals("all"), rank, limit);
+        return new ResponseEntity<>(matches, HttpStatus.OK);
+    }
+}
@@ -1,8 +1,14 @@
 package com.ndungutse.project_tracker.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ndungutse.project_tracker.dto.AuditLogCursor;
 import com.ndungutse.project_tracker.dto.AuditLogDTO;
-import com.ndungutse.project_tracker.model.AuditLog;
+import com.ndungutse.project_tracker.dto.AuditLogFilter;
+import com.ndungutse.project_tracker.dto.AuditStatsBucket;
+import com.ndungutse.project_tracker.dto.CursorPageResponse;
+import com.ndungutse.project_tracker.model.AuditRollup;
 import com.ndungutse.project_tracker.service.AuditService;
+import com.ndungutse.project_tracker.service.AuditStream;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,58 +16,184 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/logs")
 @Tag(name = "Audit Log", description = "Audit log management APIs")
 public class LogController {
     private final AuditService auditService;
+    private final AuditStream auditStream;
 
-    public LogController(AuditService auditService) {
+    public LogController(AuditService auditService, AuditStream auditStream) {
         this.auditService = auditService;
+        this.auditStream = auditStream;
     }
 
-    @Operation(summary = "Get audit logs", description = "Returns a list of audit logs with optional filtering by entity type and username")
+    @Operation(summary = "Get audit logs", description = "Returns a page of audit logs, newest first, with optional filtering by entity type, username and time range. Use the returned nextCursor to get the next page.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved audit logs",
-                content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuditLogDTO.class)))
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<AuditLogDTO>> getLogs(
+    public ResponseEntity<CursorPageResponse<AuditLogDTO>> getLogs(
             @Parameter(description = "Filter logs by entity type (e.g., 'Project', 'Task', 'Developer')")
             @RequestParam(required = false) String entityType,
             @Parameter(description = "Filter logs by username")
-            @RequestParam(required = false) String username
+            @RequestParam(required = false) String username,
+            @Parameter(description = "Only updates that changed this field of the entity (e.g., 'status')")
+            @RequestParam(required = false) String changedField,
+            @Parameter(description = "Only logs at or after this time (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Only logs before this time (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Cursor returned by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of logs per page (defaults to 50, capped by the server)")
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        AuditLogFilter filter = AuditLogFilter.builder()
+                .entityType(entityType)
+                .username(username)
+                .changedField(changedField)
+                .from(from)
+                .to(to)
+                .build();
+
+        return ResponseEntity.ok(auditService.findPage(filter, cursor, size));
+    }
+
+    @Operation(summary = "Export audit logs", description = "Streams every matching audit log as gzip-compressed NDJSON, newest first. Each line has a cursor; pass the last one received as the cursor parameter to resume an interrupted export.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export stream", content = @Content(mediaType = "application/gzip")),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content)
+    })
+    @GetMapping("/export")
+    public void exportLogs(
+            @Parameter(description = "Filter logs by entity type (e.g., 'Project', 'Task', 'Developer')")
+            @RequestParam(required = false) String entityType,
+            @Parameter(description = "Filter logs by username")
+            @RequestParam(required = false) String username,
+            @Parameter(description = "Only updates that changed this field of the entity (e.g., 'status')")
+            @RequestParam(required = false) String changedField,
+            @Parameter(description = "Only logs at or after this time (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Only logs before this time (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Cursor of the last line received, to resume an export")
+            @RequestParam(required = false) String cursor,
+            HttpServletResponse response
+    ) throws IOException {
+        AuditLogFilter filter = AuditLogFilter.builder()
+                .entityType(entityType)
+                .username(username)
+                .changedField(changedField)
+                .from(from)
+                .to(to)
+                .build();
+        // Reject a bad cursor before the response is started
+        AuditLogCursor after = cursor != null ? AuditLogCursor.decode(cursor) : null;
+
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"audit-logs.ndjson.gz\"");
+        auditService.export(filter, after, response.getOutputStream());
+    }
+
+    @Operation(summary = "Stream audit logs", description = "Pushes audit logs matching the filters as Server-Sent Events as soon as they are stored. Each event id is a cursor; reconnect with it as the cursor parameter or Last-Event-ID header to receive what was missed. Subscribers that fall too far behind are disconnected.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or too many subscribers", content = @Content)
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLogs(
+            @Parameter(description = "Filter logs by entity type (e.g., 'Project', 'Task', 'Developer')")
+            @RequestParam(required = false) String entityType,
+            @Parameter(description = "Filter logs by entity id")
+            @RequestParam(required = false) Long entityId,
+            @Parameter(description = "Filter logs by username")
+            @RequestParam(required = false) String username,
+            @Parameter(description = "Only updates that changed this field of the entity (e.g., 'status')")
+            @RequestParam(required = false) String changedField,
+            @Parameter(description = "Id of the last event received, to replay what was missed")
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
     ) {
-        List<AuditLog> logs;
+        AuditLogFilter filter = AuditLogFilter.builder()
+                .entityType(entityType)
+                .entityId(entityId)
+                .username(username)
+                .changedField(changedField)
+                .build();
+        String since = cursor != null ? cursor : lastEventId;
+
+        return auditStream.subscribe(filter, since != null ? AuditLogCursor.decode(since) : null);
+    }
 
-        if (entityType != null && username != null) {
-            // Filter by both entity type and username
-            logs = auditService.findByEntityTypeAndUsername(entityType, username);
-        } else if (entityType != null) {
-            // Filter by entity type only
-            logs = auditService.findByEntityType(entityType);
-        } else if (username != null) {
-            // Filter by username only
-            logs = auditService.findByUsername(username);
-        } else {
-            // No filters, return all logs
-            logs = auditService.findAll();
-        }
+    @Operation(summary = "Get audit activity stats", description = "Returns the number of audit events per hour or day, optionally grouped by entity type, action and username. Served from pre-aggregated rollups that are refreshed every few minutes.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved audit stats", content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "400", description = "Invalid time range or group-by dimension", content = @Content)
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<List<AuditStatsBucket>> getStats(
+            @Parameter(description = "Bucket size, HOUR or DAY")
+            @RequestParam(defaultValue = "HOUR") AuditRollup.Granularity granularity,
+            @Parameter(description = "Start of the range (ISO date-time), defaults to 7 days ago by hour or 90 days ago by day")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End of the range, exclusive (ISO date-time), defaults to now")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Dimensions to group by: entityType, action, username")
+            @RequestParam(required = false, defaultValue = "") List<String> groupBy,
+            @Parameter(description = "Only count events on this entity type")
+            @RequestParam(required = false) String entityType,
+            @Parameter(description = "Only count events by this username")
+            @RequestParam(required = false) String username
+    ) {
+        return ResponseEntity.ok(auditService.stats(granularity, from, to, groupBy, entityType, username));
+    }
 
-        // Convert entities to DTOs
-        List<AuditLogDTO> logDTOs = logs.stream()
-                .map(AuditLogDTO::fromEntity)
-                .collect(Collectors.toList());
+    @Operation(summary = "Get the change timeline of an entity", description = "Returns a page of the audit logs of one entity, newest first. Use the returned nextCursor to get older changes.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the timeline",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content)
+    })
+    @GetMapping("/{entityType}/{entityId}")
+    public ResponseEntity<CursorPageResponse<AuditLogDTO>> getTimeline(
+            @Parameter(description = "Entity type (e.g., 'Project', 'Task')", required = true) @PathVariable String entityType,
+            @Parameter(description = "ID of the entity", required = true) @PathVariable Long entityId,
+            @Parameter(description = "Cursor returned by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of changes per page (defaults to 20, capped by the server)")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(auditService.timeline(entityType, entityId, cursor, size));
+    }
 
-        return ResponseEntity.ok(logDTOs);
+    @Operation(summary = "Get the entity state of an audit log", description = "Returns the full entity state as of the given audit log, rebuilt from the nearest full snapshot and the patches after it")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully rebuilt the snapshot", content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "404", description = "Audit log not found", content = @Content)
+    })
+    @GetMapping("/{id}/snapshot")
+    public ResponseEntity<JsonNode> getSnapshot(
+            @Parameter(description = "ID of the audit log", required = true) @PathVariable String id) {
+        return ResponseEntity.ok(auditService.reconstructSnapshot(id));
     }
 }
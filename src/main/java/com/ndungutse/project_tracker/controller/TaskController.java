@@ -16,7 +16,6 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.ndungutse.project_tracker.dto.TaskDTO;
 import com.ndungutse.project_tracker.dto.TaskSummaryDTO;
-import com.ndungutse.project_tracker.security.SecurityUtil;
 import com.ndungutse.project_tracker.service.TaskService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -34,11 +33,9 @@ import jakarta.validation.Valid;
 public class TaskController {
 
         private final TaskService taskService;
-        private final SecurityUtil securityUtil;
 
-        public TaskController(TaskService taskService, SecurityUtil securityUtil) {
+        public TaskController(TaskService taskService) {
                 this.taskService = taskService;
-                this.securityUtil = securityUtil;
         }
 
         // Create a new task
@@ -146,9 +143,7 @@ public class TaskController {
         public ResponseEntity<TaskDTO> updateTask(
                         @Parameter(description = "ID of the task to update", required = true) @PathVariable Long id,
                         @Parameter(description = "Updated task data", required = true) @Valid @RequestBody TaskDTO taskDTO) {
-                // Validate task update access
-                securityUtil.validateTaskUpdateAccess(id);
-
+                // Access is validated by the service against the same task it updates
                 Optional<TaskDTO> updatedTask = taskService.update(id, taskDTO);
                 return updatedTask.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
                                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
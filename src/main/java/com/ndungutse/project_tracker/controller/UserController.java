@@ -1,6 +1,6 @@
 package com.ndungutse.project_tracker.controller;
 
-import java.util.List;
+import java.io.IOException;
 import java.util.Optional;
 
 import org.springframework.http.HttpStatus;
@@ -12,12 +12,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ndungutse.project_tracker.dto.CreateUserRequest;
+import com.ndungutse.project_tracker.dto.CursorPageResponse;
+import com.ndungutse.project_tracker.dto.OffboardUserRequest;
+import com.ndungutse.project_tracker.dto.OffboardingSummaryDTO;
 import com.ndungutse.project_tracker.dto.UpdateUserRequest;
 import com.ndungutse.project_tracker.dto.UserDTO;
+import com.ndungutse.project_tracker.dto.UserImportResult;
 import com.ndungutse.project_tracker.exception.ResourceNotFoundException;
+import com.ndungutse.project_tracker.service.UserImportService;
 import com.ndungutse.project_tracker.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,6 +33,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -35,9 +43,11 @@ import jakarta.validation.Valid;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService) {
         this.userService = userService;
+        this.userImportService = userImportService;
     }
 
     // Create a new user
@@ -58,18 +68,36 @@ public class UserController {
         }
     }
 
-    // Get all users
-    @Operation(summary = "Get all users", description = "Returns a list of all users")
+    // Get users page by page
+    @Operation(summary = "Get users", description = "Returns a page of users ordered by ID, optionally filtered by username and email prefix. Use the returned nextCursor to get the next page.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved users", content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserDTO.class))),
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved users", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content),
             @ApiResponse(responseCode = "403", description = "Access denied - Only ADMIN role can view all users", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users = userService.getAllUsers();
+    public ResponseEntity<CursorPageResponse<UserDTO>> getUsers(
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of users per page (defaults to 50, capped by the server)") @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "Only users whose username starts with this value") @RequestParam(required = false) String username,
+            @Parameter(description = "Only users whose email starts with this value") @RequestParam(required = false) String email) {
+        CursorPageResponse<UserDTO> users = userService.getUsers(cursor, size, username, email);
         return new ResponseEntity<>(users, HttpStatus.OK);
     }
 
+    // Import users in bulk
+    @Operation(summary = "Import users", description = "Creates the users of a CSV file (with a header row of username, email, password, role or roleId, and optionally fullName and skills) or an NDJSON stream with the same fields. Streams back one NDJSON result per row: CREATED, DUPLICATE, INVALID or FAILED.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import results, one line per row", content = @Content(mediaType = UserImportService.NDJSON, schema = @Schema(implementation = UserImportResult.class))),
+            @ApiResponse(responseCode = "400", description = "Unsupported format", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Access denied - Only ADMIN role can import users", content = @Content)
+    })
+    @PostMapping(value = "/import", consumes = { UserImportService.CSV, UserImportService.NDJSON })
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(UserImportService.NDJSON);
+        userImportService.importUsers(request.getInputStream(), request.getContentType(), response.getOutputStream());
+    }
+
     // Get a user by ID
     @Operation(summary = "Get a user by ID", description = "Returns a user based on the provided ID")
     @ApiResponses(value = {
@@ -136,4 +164,20 @@ public class UserController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
-}
\ No newline at end of file
+
+    // Offboard a user
+    @Operation(summary = "Offboard a user", description = "Deletes a user without deleting their tasks. Open tasks are reassigned to reassignToUserId when given; all other tasks of the user are left unassigned.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User offboarded", content = @Content(mediaType = "application/json", schema = @Schema(implementation = OffboardingSummaryDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Cannot reassign tasks to the offboarded user", content = @Content),
+            @ApiResponse(responseCode = "404", description = "User or new assignee not found", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Access denied - Only ADMIN role can offboard users", content = @Content)
+    })
+    @PostMapping("/{id}/offboard")
+    public ResponseEntity<OffboardingSummaryDTO> offboardUser(
+            @Parameter(description = "ID of the user to offboard", required = true) @PathVariable Long id,
+            @Parameter(description = "Who takes over the open tasks") @RequestBody(required = false) OffboardUserRequest request) {
+        Long reassignTo = request != null ? request.getReassignToUserId() : null;
+        return new ResponseEntity<>(userService.offboardUser(id, reassignTo), HttpStatus.OK);
+    }
+}
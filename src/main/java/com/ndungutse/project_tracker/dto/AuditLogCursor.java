@@ -0,0 +1,38 @@
+package com.ndungutse.project_tracker.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.bson.types.ObjectId;
+
+import com.ndungutse.project_tracker.model.AuditLog;
+
+/**
+ * Position in the audit log ordered by (timestamp, _id) descending. Encoded as
+ * an opaque token so clients just pass back what they were given.
+ */
+public record AuditLogCursor(LocalDateTime timestamp, ObjectId id) {
+
+    public static AuditLogCursor of(AuditLog auditLog) {
+        return new AuditLogCursor(auditLog.getTimestamp(), new ObjectId(auditLog.getId()));
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + id.toHexString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AuditLogCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new AuditLogCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    new ObjectId(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -3,6 +3,9 @@ package com.ndungutse.project_tracker.dto;
 import com.ndungutse.project_tracker.model.AuditLog;
 
 import java.time.LocalDateTime;
+import java.util.List;
+
+import org.bson.Document;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -18,7 +21,13 @@ public class AuditLogDTO {
     private String action;
     private LocalDateTime timestamp;
     private String username;
+    // Legacy JSON text snapshot, null on records stored as BSON
     private String dataSnapshot;
+    private Document snapshot;
+    private List<Document> patch;
+    private List<String> changedFields;
+    private String encoding;
+    private String baseId;
 
     // Default constructor is handled by @NoArgsConstructor
     // Constructor with parameters is handled by @AllArgsConstructor
@@ -32,7 +41,12 @@ public class AuditLogDTO {
                 auditLog.getAction(),
                 auditLog.getTimestamp(),
                 auditLog.getUsername(),
-                auditLog.getDataSnapshot()
+                auditLog.getDataSnapshot(),
+                auditLog.getSnapshot(),
+                auditLog.getPatch(),
+                auditLog.getChangedFields(),
+                auditLog.getEncoding() != null ? auditLog.getEncoding() : AuditLog.ENCODING_FULL,
+                auditLog.getBaseId()
         );
     }
 
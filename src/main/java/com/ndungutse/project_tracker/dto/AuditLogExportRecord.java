@@ -0,0 +1,8 @@
+package com.ndungutse.project_tracker.dto;
+
+/**
+ * One line of an audit log export. The cursor can be passed back to the export
+ * endpoint to resume right after this record.
+ */
+public record AuditLogExportRecord(String cursor, AuditLogDTO log) {
+}
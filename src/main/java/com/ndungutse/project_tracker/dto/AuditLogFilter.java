@@ -0,0 +1,24 @@
+package com.ndungutse.project_tracker.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditLogFilter {
+    private String entityType;
+    private Long entityId;
+    private String username;
+    // Only updates that changed this top-level field of the entity
+    private String changedField;
+    // Inclusive lower bound
+    private LocalDateTime from;
+    // Exclusive upper bound
+    private LocalDateTime to;
+}
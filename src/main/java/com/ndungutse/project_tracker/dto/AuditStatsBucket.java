@@ -0,0 +1,22 @@
+package com.ndungutse.project_tracker.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditStatsBucket {
+    // Start of the hour or day
+    private LocalDateTime start;
+    // Only set for the dimensions that were grouped by
+    private String entityType;
+    private String action;
+    private String username;
+    private long count;
+}
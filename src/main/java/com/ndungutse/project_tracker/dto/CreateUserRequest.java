@@ -26,4 +26,7 @@ public class CreateUserRequest {
 
     @NotNull(message = "Role ID is required")
     private Long roleId;
+
+    // Comma-separated, e.g. "Java, Spring Boot"
+    private String skills;
 }
\ No newline at end of file
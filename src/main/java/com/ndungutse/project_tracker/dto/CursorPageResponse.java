@@ -0,0 +1,17 @@
+package com.ndungutse.project_tracker.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    // Pass back as the cursor parameter to get the next page, null on the last page
+    private String nextCursor;
+    private boolean hasNext;
+}
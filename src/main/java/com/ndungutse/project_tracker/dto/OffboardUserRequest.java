@@ -0,0 +1,13 @@
+package com.ndungutse.project_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OffboardUserRequest {
+    // User who takes over the open tasks, leave empty to unassign them
+    private Long reassignToUserId;
+}
@@ -0,0 +1,20 @@
+package com.ndungutse.project_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OffboardingSummaryDTO {
+    private Long userId;
+    private String username;
+    private Long reassignedToUserId;
+    // Open tasks moved to reassignedToUserId
+    private int reassignedTasks;
+    // Tasks left without an assignee
+    private int unassignedTasks;
+}
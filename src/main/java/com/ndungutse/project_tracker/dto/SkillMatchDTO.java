@@ -0,0 +1,20 @@
+package com.ndungutse.project_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SkillMatchDTO {
+    private Long id;
+    private String username;
+    private String email;
+    private String fullName;
+    private String roleName;
+    private String skills;
+    private long openTasks;
+}
@@ -20,4 +20,7 @@ public class UpdateUserRequest {
     private String email;
 
     private Long roleId;
-}
+
+    // Comma-separated, e.g. "Java, Spring Boot"
+    private String skills;
+}
\ No newline at end of file
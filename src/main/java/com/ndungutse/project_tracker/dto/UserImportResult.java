@@ -0,0 +1,12 @@
+package com.ndungutse.project_tracker.dto;
+
+/**
+ * Outcome of one row of a bulk user import. Rows are numbered from 1, not
+ * counting the CSV header; id is only set for created users.
+ */
+public record UserImportResult(long row, String username, Status status, Long id, String message) {
+
+    public enum Status {
+        CREATED, DUPLICATE, INVALID, FAILED
+    }
+}
@@ -0,0 +1,22 @@
+package com.ndungutse.project_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One user of a bulk import, as a CSV row or an NDJSON line. The role can be
+ * given by name or by id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportRow {
+    private String username;
+    private String email;
+    private String password;
+    private String fullName;
+    private String skills;
+    private String role;
+    private Long roleId;
+}
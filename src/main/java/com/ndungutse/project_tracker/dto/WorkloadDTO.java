@@ -0,0 +1,30 @@
+package com.ndungutse.project_tracker.dto;
+
+import java.io.Serializable;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class WorkloadDTO implements Serializable {
+    private Long userId;
+    private String username;
+    private String fullName;
+    private long openTasks;
+    private long doneTasks;
+    // Open tasks past their due date, also counted in openTasks
+    private long overdueTasks;
+
+    public WorkloadDTO(Long userId, String username, String fullName, Long openTasks, Long doneTasks,
+            Long overdueTasks) {
+        this.userId = userId;
+        this.username = username;
+        this.fullName = fullName;
+        this.openTasks = openTasks != null ? openTasks : 0;
+        this.doneTasks = doneTasks != null ? doneTasks : 0;
+        this.overdueTasks = overdueTasks != null ? overdueTasks : 0;
+    }
+}
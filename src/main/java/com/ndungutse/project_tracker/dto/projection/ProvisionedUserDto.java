@@ -0,0 +1,11 @@
+package com.ndungutse.project_tracker.dto.projection;
+
+public interface ProvisionedUserDto {
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    Long getRoleId();
+}
@@ -0,0 +1,7 @@
+package com.ndungutse.project_tracker.dto.projection;
+
+public interface UserSkillsDto {
+    Long getId();
+
+    String getSkills();
+}
@@ -4,6 +4,7 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -14,6 +15,13 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class AuditLog {
+    // The record holds the full entity state
+    public static final String ENCODING_FULL = "FULL";
+    // The record holds an RFC 6902 JSON Patch against the state of the baseId record
+    public static final String ENCODING_JSON_PATCH = "JSON_PATCH";
+    // Only in the local spool: a raw event whose state is JSON text in dataSnapshot, encoded on replay
+    public static final String ENCODING_PENDING = "PENDING";
+
     @Id
     private String id;
     private String entityType;
@@ -21,7 +29,17 @@ public class AuditLog {
     private String action;
     private LocalDateTime timestamp;
     private String username;
+    // JSON text, only on records written before snapshots were stored as BSON
     private String dataSnapshot;
+    // Full entity state as an embedded document (FULL encoding)
+    private org.bson.Document snapshot;
+    // RFC 6902 operations as embedded documents (JSON_PATCH encoding)
+    private List<org.bson.Document> patch;
+    // Top-level fields changed by an update, when the previous state was known
+    private List<String> changedFields;
+    // Null on records written before delta encoding, which are always full
+    private String encoding;
+    private String baseId;
 
     // Default constructor is handled by @NoArgsConstructor
 
@@ -33,6 +51,7 @@ public class AuditLog {
         this.timestamp = LocalDateTime.now();
         this.username = username;
         this.dataSnapshot = dataSnapshot;
+        this.encoding = ENCODING_FULL;
     }
 
     // Getters and Setters are handled by @Data
@@ -0,0 +1,42 @@
+package com.ndungutse.project_tracker.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of audit events with the same entity type, action and username in
+ * one hour or one day. Built from the raw audit logs by AuditRollupJob.
+ */
+@Document(collection = "audit_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditRollup {
+    public enum Granularity {
+        HOUR,
+        DAY
+    }
+
+    // Derived from the other fields so rebuilding a bucket replaces it
+    @Id
+    private String id;
+    private Granularity granularity;
+    private LocalDateTime start;
+    private String entityType;
+    private String action;
+    private String username;
+    private long count;
+
+    public static String idOf(Granularity granularity, LocalDateTime start, String entityType, String action,
+            String username) {
+        return granularity + "|" + start + "|" + entityType + "|" + action + "|" + username;
+    }
+}
@@ -8,15 +8,18 @@ import java.util.List;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
 @Table(name = "projects")
 @DynamicUpdate
-@Data
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -45,4 +48,23 @@ public class Project {
         tasks.remove(task);
         task.setProject(null);
     }
+
+    // Identity is the id only, so comparing or hashing never initializes the lazy collections.
+    // The hash is constant per type so it does not change when a new entity is persisted.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        // instanceof rather than getClass(), Hibernate proxies are subclasses
+        if (!(o instanceof Project other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Project.class.hashCode();
+    }
 }
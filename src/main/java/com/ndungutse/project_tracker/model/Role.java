@@ -3,15 +3,19 @@ package com.ndungutse.project_tracker.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "roles")
-@Data
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -24,6 +28,24 @@ public class Role {
     private String roleName;
 
     @OneToMany(mappedBy = "role", fetch = FetchType.LAZY)
+    @ToString.Exclude
     @Builder.Default
     private List<User> users = new ArrayList<>();
-}
\ No newline at end of file
+
+    // Id-based like Project, so it never touches users
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Role other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Role.class.hashCode();
+    }
+}
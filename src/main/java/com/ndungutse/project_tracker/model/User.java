@@ -3,16 +3,19 @@ package com.ndungutse.project_tracker.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
-@Data
+@Table(name = "users", indexes = @Index(name = "idx_users_username", columnList = "username"))
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -39,7 +42,8 @@ public class User {
     @ToString.Exclude
     private Role role;
 
-    @OneToMany(mappedBy = "assignedUser", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    // Not cascaded: deleting a user unassigns its tasks with a bulk update instead of deleting them
+    @OneToMany(mappedBy = "assignedUser", fetch = FetchType.LAZY)
     @ToString.Exclude
     @Builder.Default
     private List<Task> assignedTasks = new ArrayList<>();
@@ -54,4 +58,21 @@ public class User {
         assignedTasks.remove(task);
         task.setAssignedUser(null);
     }
+
+    // Id-based like Project, so putting a user in a set never loads its tasks
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof User other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return User.class.hashCode();
+    }
 }
@@ -0,0 +1,279 @@
+package com.ndungutse.project_tracker.repository;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ndungutse.project_tracker.dto.AuditLogCursor;
+import com.ndungutse.project_tracker.dto.AuditLogFilter;
+import com.ndungutse.project_tracker.model.AuditLog;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cold audit months archived to local disk. Each month is one append-only
+ * segment file of independently gzip-compressed blocks of NDJSON records,
+ * newest first, plus a sparse index with the byte range and time range of
+ * every block. Reads decompress only the blocks whose time range can match.
+ */
+@Component
+public class AuditArchive {
+    private static final Logger logger = LoggerFactory.getLogger(AuditArchive.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final Path directory;
+    private final int blockSize;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+
+    // Sparse index of every archived month, loaded at startup
+    private final Map<YearMonth, List<Block>> indexes = new ConcurrentHashMap<>();
+
+    public AuditArchive(
+            ObjectMapper objectMapper,
+            @Value("${audit.archive.directory:audit-archive}") String directory,
+            @Value("${audit.archive.block-size:1000}") int blockSize) {
+        this.directory = Path.of(directory);
+        this.blockSize = blockSize;
+        this.writer = objectMapper.writerFor(AuditLog.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.reader = objectMapper.readerFor(AuditLog.class);
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(INDEX_SUFFIX)) {
+                    YearMonth month = YearMonth.parse(name.substring(0, name.length() - INDEX_SUFFIX.length()));
+                    indexes.put(month, readIndex(file));
+                }
+            }
+        }
+        logger.info("Loaded {} archived audit months", indexes.size());
+    }
+
+    /**
+     * Re-read one month's index from the shared directory, after another node
+     * archived or discarded it.
+     */
+    public void reload(YearMonth month) throws IOException {
+        Path index = directory.resolve(month + INDEX_SUFFIX);
+        if (Files.exists(index)) {
+            indexes.put(month, readIndex(index));
+        } else {
+            indexes.remove(month);
+        }
+    }
+
+    public Set<YearMonth> archivedMonths() {
+        return Set.copyOf(indexes.keySet());
+    }
+
+    public boolean isArchived(YearMonth month) {
+        return indexes.containsKey(month);
+    }
+
+    /**
+     * Write a month to a new segment. Records must come newest first. The
+     * segment only becomes visible once its index is in place.
+     *
+     * @return number of records written
+     */
+    public long archive(YearMonth month, Iterator<AuditLog> newestFirst) throws IOException {
+        Path segment = directory.resolve(month + SEGMENT_SUFFIX);
+        Path index = directory.resolve(month + INDEX_SUFFIX);
+        Path tmpSegment = directory.resolve(month + SEGMENT_SUFFIX + ".tmp");
+        Path tmpIndex = directory.resolve(month + INDEX_SUFFIX + ".tmp");
+
+        List<Block> blocks = new ArrayList<>();
+        long records = 0;
+        try (FileChannel channel = FileChannel.open(tmpSegment, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            List<AuditLog> pending = new ArrayList<>(blockSize);
+            while (newestFirst.hasNext()) {
+                pending.add(newestFirst.next());
+                records++;
+                if (pending.size() == blockSize) {
+                    blocks.add(appendBlock(channel, pending));
+                    pending.clear();
+                }
+            }
+            if (!pending.isEmpty()) {
+                blocks.add(appendBlock(channel, pending));
+            }
+            channel.force(true);
+        }
+
+        List<String> lines = new ArrayList<>(blocks.size());
+        for (Block block : blocks) {
+            lines.add(block.offset() + "," + block.length() + "," + block.newest() + "," + block.oldest());
+        }
+        Files.write(tmpIndex, lines, StandardCharsets.UTF_8);
+
+        Files.move(tmpSegment, segment, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(tmpIndex, index, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        indexes.put(month, List.copyOf(blocks));
+        return records;
+    }
+
+    /**
+     * Remove a month's segment, for an archive that turned out to be
+     * incomplete, so the month is read from its live collection again.
+     */
+    public void discard(YearMonth month) throws IOException {
+        indexes.remove(month);
+        Files.deleteIfExists(directory.resolve(month + INDEX_SUFFIX));
+        Files.deleteIfExists(directory.resolve(month + SEGMENT_SUFFIX));
+    }
+
+    private Block appendBlock(FileChannel channel, List<AuditLog> records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            for (AuditLog record : records) {
+                writer.writeValue(gzip, record);
+                gzip.write('\n');
+            }
+        }
+
+        long offset = channel.position();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return new Block(offset, bytes.size(), records.get(0).getTimestamp(),
+                records.get(records.size() - 1).getTimestamp());
+    }
+
+    /**
+     * Matching records of an archived month, newest first. Blocks are read one
+     * at a time as the stream is consumed.
+     */
+    public Stream<AuditLog> stream(YearMonth month, AuditLogFilter filter, AuditLogCursor after) {
+        List<Block> blocks = indexes.getOrDefault(month, List.of());
+        LocalDateTime upper = after != null ? after.timestamp() : null;
+        return blocks.stream()
+                .filter(block -> overlaps(block, filter.getFrom(), filter.getTo(), upper))
+                .flatMap(block -> readBlock(month, block).stream())
+                .filter(record -> matches(record, filter, after));
+    }
+
+    public AuditLog findById(YearMonth month, ObjectId id) {
+        // Ids are generated when the record is created, so the record sits within a second of the id time
+        LocalDateTime created = LocalDateTime.ofInstant(id.getDate().toInstant(), ZoneId.systemDefault());
+        LocalDateTime from = created.minusSeconds(1);
+        LocalDateTime to = created.plusSeconds(2);
+        String hex = id.toHexString();
+        try (Stream<AuditLog> records = indexes.getOrDefault(month, List.of()).stream()
+                .filter(block -> overlaps(block, from, to, null))
+                .flatMap(block -> readBlock(month, block).stream())) {
+            return records.filter(record -> hex.equals(record.getId())).findFirst().orElse(null);
+        }
+    }
+
+    private List<AuditLog> readBlock(YearMonth month, Block block) {
+        Path segment = directory.resolve(month + SEGMENT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) block.length());
+            while (buffer.hasRemaining() && channel.read(buffer, block.offset() + buffer.position()) >= 0) {
+                // Keep reading until the block is complete
+            }
+
+            List<AuditLog> records = new ArrayList<>(blockSize);
+            try (BufferedReader lines = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(buffer.array())), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    records.add(reader.readValue(line));
+                }
+            }
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archived audit block of " + month, e);
+        }
+    }
+
+    private static boolean overlaps(Block block, LocalDateTime from, LocalDateTime to, LocalDateTime upper) {
+        return (from == null || !block.newest().isBefore(from))
+                && (to == null || block.oldest().isBefore(to))
+                && (upper == null || !block.oldest().isAfter(upper));
+    }
+
+    // Same semantics as the MongoDB criteria in AuditLogRepositoryImpl
+    private static boolean matches(AuditLog record, AuditLogFilter filter, AuditLogCursor after) {
+        if (filter.getEntityType() != null && !filter.getEntityType().equals(record.getEntityType())) {
+            return false;
+        }
+        if (filter.getEntityId() != null && !filter.getEntityId().equals(record.getEntityId())) {
+            return false;
+        }
+        if (filter.getUsername() != null && !filter.getUsername().equals(record.getUsername())) {
+            return false;
+        }
+        if (filter.getChangedField() != null
+                && (record.getChangedFields() == null || !record.getChangedFields().contains(filter.getChangedField()))) {
+            return false;
+        }
+        if (filter.getFrom() != null && record.getTimestamp().isBefore(filter.getFrom())) {
+            return false;
+        }
+        if (filter.getTo() != null && !record.getTimestamp().isBefore(filter.getTo())) {
+            return false;
+        }
+        if (after != null) {
+            int byTime = record.getTimestamp().compareTo(after.timestamp());
+            return byTime < 0 || (byTime == 0 && new ObjectId(record.getId()).compareTo(after.id()) < 0);
+        }
+        return true;
+    }
+
+    private static List<Block> readIndex(Path file) throws IOException {
+        List<Block> blocks = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] parts = line.split(",");
+            blocks.add(new Block(Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+                    LocalDateTime.parse(parts[2]), LocalDateTime.parse(parts[3])));
+        }
+        return List.copyOf(blocks);
+    }
+
+    // Byte range of one compressed block and the time range of its records
+    private record Block(long offset, long length, LocalDateTime newest, LocalDateTime oldest) {
+    }
+}
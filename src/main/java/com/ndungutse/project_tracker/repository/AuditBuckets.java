@@ -0,0 +1,242 @@
+package com.ndungutse.project_tracker.repository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoNamespace;
+import com.ndungutse.project_tracker.model.AuditLog;
+
+/**
+ * Audit logs are stored in one collection per month (audit_logs_2025_06) so
+ * that queries over recent activity only touch small, recent collections and
+ * whole months can be archived by dropping a collection. Records written
+ * before bucketing stay in the legacy audit_logs collection, which is always
+ * searched last.
+ */
+@Component
+public class AuditBuckets {
+    public static final String LEGACY_COLLECTION = "audit_logs";
+
+    private static final String PREFIX = LEGACY_COLLECTION + "_";
+    private static final String SEALED_SUFFIX = "_archiving";
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final MongoTemplate mongoTemplate;
+
+    // Months that have a live collection with its indexes in place
+    private final Set<YearMonth> liveMonths = ConcurrentHashMap.newKeySet();
+    private volatile boolean legacyExists;
+
+    public AuditBuckets(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public static String collectionFor(YearMonth month) {
+        return PREFIX + month.format(MONTH_FORMAT);
+    }
+
+    static String sealedCollectionFor(YearMonth month) {
+        return collectionFor(month) + SEALED_SUFFIX;
+    }
+
+    public static YearMonth monthOf(LocalDateTime timestamp) {
+        return YearMonth.from(timestamp);
+    }
+
+    /**
+     * Discover existing bucket collections and make sure they are indexed.
+     * Runs once the application is ready rather than at creation, so building
+     * the context (e.g. the CDS training run) does not need MongoDB; first in
+     * line, before the other ready listeners read the audit logs.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void load() {
+        for (String name : mongoTemplate.getCollectionNames()) {
+            if (name.equals(LEGACY_COLLECTION)) {
+                ensureIndexes(name);
+                legacyExists = true;
+            } else if (name.startsWith(PREFIX)) {
+                try {
+                    YearMonth month = YearMonth.parse(name.substring(PREFIX.length()), MONTH_FORMAT);
+                    ensureIndexes(name);
+                    liveMonths.add(month);
+                } catch (DateTimeParseException e) {
+                    // Not a bucket, leave it alone
+                }
+            }
+        }
+    }
+
+    /**
+     * Collection to write a record with the given timestamp to, created and
+     * indexed on first use.
+     */
+    public String writeCollection(LocalDateTime timestamp) {
+        YearMonth month = monthOf(timestamp);
+        String name = collectionFor(month);
+        if (!liveMonths.contains(month)) {
+            ensureIndexes(name);
+            liveMonths.add(month);
+        }
+        return name;
+    }
+
+    public boolean isLive(YearMonth month) {
+        return liveMonths.contains(month);
+    }
+
+    public Set<YearMonth> liveMonths() {
+        return Set.copyOf(liveMonths);
+    }
+
+    public boolean legacyExists() {
+        return legacyExists;
+    }
+
+    /**
+     * Atomically rename a month's collection out of the way before it is
+     * archived. Writers only ever use the live name, so the sealed collection
+     * cannot change while it is archived; records written after this create a
+     * new live collection and are read as late records of the month.
+     *
+     * @return false if the month has no live collection
+     */
+    public boolean seal(YearMonth month) {
+        String name = collectionFor(month);
+        if (!mongoTemplate.collectionExists(name)) {
+            liveMonths.remove(month);
+            return false;
+        }
+        mongoTemplate.getCollection(name).renameCollection(
+                new MongoNamespace(mongoTemplate.getDb().getName(), sealedCollectionFor(month)));
+        liveMonths.remove(month);
+        return true;
+    }
+
+    // Months sealed by an archive run that did not finish
+    public Set<YearMonth> sealedMonths() {
+        Set<YearMonth> months = new HashSet<>();
+        for (String name : mongoTemplate.getCollectionNames()) {
+            if (name.startsWith(PREFIX) && name.endsWith(SEALED_SUFFIX)) {
+                try {
+                    months.add(YearMonth.parse(
+                            name.substring(PREFIX.length(), name.length() - SEALED_SUFFIX.length()), MONTH_FORMAT));
+                } catch (DateTimeParseException e) {
+                    // Not a bucket, leave it alone
+                }
+            }
+        }
+        return months;
+    }
+
+    // Every record of a sealed month, newest first, for archiving
+    public Stream<AuditLog> streamSealed(YearMonth month) {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "timestamp", "id"));
+        return mongoTemplate.stream(query, AuditLog.class, sealedCollectionFor(month));
+    }
+
+    public long countSealed(YearMonth month) {
+        return mongoTemplate.getCollection(sealedCollectionFor(month)).countDocuments();
+    }
+
+    // Called once a sealed month has been archived
+    public void dropSealed(YearMonth month) {
+        mongoTemplate.dropCollection(sealedCollectionFor(month));
+    }
+
+    /**
+     * Re-check a month after another node archived it. A node that still saw
+     * the month as live may have recreated the collection with a late insert,
+     * without indexes; such a collection is indexed and stays live.
+     */
+    public void refresh(YearMonth month) {
+        String name = collectionFor(month);
+        if (mongoTemplate.collectionExists(name)) {
+            ensureIndexes(name);
+            liveMonths.add(month);
+        } else {
+            liveMonths.remove(month);
+        }
+    }
+
+    /**
+     * Months between the given bounds (either may be null) that have data,
+     * live or archived, newest first.
+     */
+    public List<YearMonth> monthsNewestFirst(Set<YearMonth> archivedMonths, LocalDateTime from, LocalDateTime to) {
+        YearMonth lower = from != null ? monthOf(from) : null;
+        YearMonth upper = to != null ? monthOf(to) : null;
+
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month : liveMonths) {
+            if (within(month, lower, upper)) {
+                months.add(month);
+            }
+        }
+        for (YearMonth month : archivedMonths) {
+            if (!liveMonths.contains(month) && within(month, lower, upper)) {
+                months.add(month);
+            }
+        }
+        months.sort(Comparator.reverseOrder());
+        return months;
+    }
+
+    private static boolean within(YearMonth month, YearMonth lower, YearMonth upper) {
+        return (lower == null || !month.isBefore(lower)) && (upper == null || !month.isAfter(upper));
+    }
+
+    // Audit queries filter by equality and page by (timestamp, _id), newest first
+    private void ensureIndexes(String collection) {
+        IndexOperations indexOps = mongoTemplate.indexOps(collection);
+
+        indexOps.ensureIndex(new Index()
+                .on("entityType", Sort.Direction.ASC)
+                .on("timestamp", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("entityType_timestamp"));
+        indexOps.ensureIndex(new Index()
+                .on("username", Sort.Direction.ASC)
+                .on("timestamp", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("username_timestamp"));
+        indexOps.ensureIndex(new Index()
+                .on("entityType", Sort.Direction.ASC)
+                .on("entityId", Sort.Direction.ASC)
+                .on("timestamp", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("entityType_entityId_timestamp"));
+        // Sparse, only updates with a known previous state have changed fields
+        indexOps.ensureIndex(new Index()
+                .on("changedFields", Sort.Direction.ASC)
+                .on("timestamp", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .sparse()
+                .named("changedFields_timestamp"));
+        indexOps.ensureIndex(new Index()
+                .on("timestamp", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("timestamp"));
+    }
+}
@@ -0,0 +1,31 @@
+package com.ndungutse.project_tracker.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import com.ndungutse.project_tracker.dto.AuditLogCursor;
+import com.ndungutse.project_tracker.dto.AuditLogFilter;
+import com.ndungutse.project_tracker.model.AuditLog;
+import com.ndungutse.project_tracker.model.AuditRollup;
+
+public interface AuditLogRepositoryCustom {
+    // Newest first, starting after the given cursor (null for the first page)
+    List<AuditLog> findPage(AuditLogFilter filter, AuditLogCursor after, int limit);
+
+    // Same order as findPage, read lazily from a server-side cursor. Must be closed.
+    Stream<AuditLog> stream(AuditLogFilter filter, AuditLogCursor after, int batchSize);
+
+    // Looks in the monthly bucket the id belongs to rather than a single collection
+    Optional<AuditLog> findById(String id);
+
+    // Insert into the monthly bucket of each record's timestamp, skipping ids that are already stored
+    void insertBucketed(List<AuditLog> auditLogs);
+
+    // Events per hour, entity type, action and username in [from, to); from may be null for everything
+    List<AuditRollup> countByHour(LocalDateTime from, LocalDateTime to);
+
+    // Number of live records in [from, to), counted without grouping, to check the rollups against
+    long countBetween(LocalDateTime from, LocalDateTime to);
+}
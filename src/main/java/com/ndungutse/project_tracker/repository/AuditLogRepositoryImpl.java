@@ -0,0 +1,326 @@
+package com.ndungutse.project_tracker.repository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.ndungutse.project_tracker.dto.AuditLogCursor;
+import com.ndungutse.project_tracker.dto.AuditLogFilter;
+import com.ndungutse.project_tracker.model.AuditLog;
+import com.ndungutse.project_tracker.model.AuditRollup;
+
+/**
+ * Routes audit queries across the monthly buckets, newest month first, and
+ * reads archived months from local segments. A page stops at the first
+ * months that can fill it, so recent queries never touch old data.
+ */
+public class AuditLogRepositoryImpl implements AuditLogRepositoryCustom {
+    private static final int DUPLICATE_KEY = 11000;
+    private static final long HOUR_MILLIS = 3_600_000L;
+    // Timestamp truncated to the hour. Hours are cut in UTC, which matches local hours in whole-hour time zones.
+    private static final Document HOUR_START = new Document("$subtract", List.of("$timestamp",
+            new Document("$mod", List.of(new Document("$toLong", "$timestamp"), HOUR_MILLIS))));
+
+    private static final Comparator<AuditLog> NEWEST_FIRST = Comparator
+            .comparing(AuditLog::getTimestamp)
+            .thenComparing(auditLog -> new ObjectId(auditLog.getId()))
+            .reversed();
+
+    private final MongoTemplate mongoTemplate;
+    private final AuditBuckets buckets;
+    private final AuditArchive archive;
+
+    public AuditLogRepositoryImpl(MongoTemplate mongoTemplate, AuditBuckets buckets, AuditArchive archive) {
+        this.mongoTemplate = mongoTemplate;
+        this.buckets = buckets;
+        this.archive = archive;
+    }
+
+    @Override
+    public List<AuditLog> findPage(AuditLogFilter filter, AuditLogCursor after, int limit) {
+        List<AuditLog> page = new ArrayList<>(limit);
+        for (YearMonth month : monthsToSearch(filter, after)) {
+            int remaining = limit - page.size();
+            if (remaining <= 0) {
+                return page;
+            }
+            try (Stream<AuditLog> records = streamMonth(month, filter, after, remaining)) {
+                records.limit(remaining).forEach(page::add);
+            }
+        }
+
+        int remaining = limit - page.size();
+        if (remaining > 0 && buckets.legacyExists()) {
+            page.addAll(mongoTemplate.find(pageQuery(filter, after).limit(remaining), AuditLog.class,
+                    AuditBuckets.LEGACY_COLLECTION));
+        }
+        return page;
+    }
+
+    @Override
+    public Stream<AuditLog> stream(AuditLogFilter filter, AuditLogCursor after, int batchSize) {
+        Stream<AuditLog> bucketed = monthsToSearch(filter, after).stream()
+                .flatMap(month -> streamMonth(month, filter, after, batchSize));
+
+        if (!buckets.legacyExists()) {
+            return bucketed;
+        }
+        // Lazily opened once the buckets are exhausted
+        return Stream.concat(bucketed, Stream.of(AuditBuckets.LEGACY_COLLECTION)
+                .flatMap(legacy -> mongoTemplate.stream(pageQuery(filter, after).cursorBatchSize(batchSize),
+                        AuditLog.class, legacy)));
+    }
+
+    @Override
+    public Optional<AuditLog> findById(String id) {
+        if (!ObjectId.isValid(id)) {
+            return Optional.empty();
+        }
+        ObjectId objectId = new ObjectId(id);
+        LocalDateTime created = LocalDateTime.ofInstant(objectId.getDate().toInstant(), ZoneId.systemDefault());
+
+        // The record timestamp can fall just across a month boundary from its id
+        Set<YearMonth> months = new LinkedHashSet<>(List.of(AuditBuckets.monthOf(created),
+                AuditBuckets.monthOf(created.minusSeconds(1)), AuditBuckets.monthOf(created.plusSeconds(1))));
+        for (YearMonth month : months) {
+            AuditLog found = buckets.isLive(month)
+                    ? mongoTemplate.findById(objectId, AuditLog.class, AuditBuckets.collectionFor(month))
+                    : null;
+            if (found == null && archive.isArchived(month)) {
+                found = archive.findById(month, objectId);
+            }
+            if (found != null) {
+                return Optional.of(found);
+            }
+        }
+
+        if (buckets.legacyExists()) {
+            return Optional.ofNullable(mongoTemplate.findById(objectId, AuditLog.class, AuditBuckets.LEGACY_COLLECTION));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void insertBucketed(List<AuditLog> auditLogs) {
+        Map<String, List<AuditLog>> byCollection = new LinkedHashMap<>();
+        for (AuditLog auditLog : auditLogs) {
+            byCollection.computeIfAbsent(buckets.writeCollection(auditLog.getTimestamp()), name -> new ArrayList<>())
+                    .add(auditLog);
+        }
+        byCollection.forEach(this::insertIgnoringDuplicates);
+    }
+
+    // Unordered so one record that is already stored does not stop the rest of the batch
+    private void insertIgnoringDuplicates(String collection, List<AuditLog> batch) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AuditLog.class, collection)
+                    .insert(batch)
+                    .execute();
+        } catch (BulkOperationException e) {
+            boolean onlyDuplicates = e.getErrors().stream()
+                    .allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public List<AuditRollup> countByHour(LocalDateTime from, LocalDateTime to) {
+        List<String> collections = liveCollections(from, to);
+        Criteria range = timestampRange(from, to);
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(range),
+                context -> new Document("$group", new Document("_id", new Document("start", HOUR_START)
+                        .append("entityType", "$entityType")
+                        .append("action", "$action")
+                        .append("username", "$username"))
+                        .append("count", new Document("$sum", 1))));
+
+        // An hour can have records in two collections (legacy and its bucket), so sum across them
+        Map<String, AuditRollup> rollups = new LinkedHashMap<>();
+        for (String collection : collections) {
+            for (Document group : mongoTemplate.aggregate(aggregation, collection, Document.class)) {
+                Document key = group.get("_id", Document.class);
+                LocalDateTime start = LocalDateTime.ofInstant(key.getDate("start").toInstant(), ZoneId.systemDefault());
+                String entityType = key.getString("entityType");
+                String action = key.getString("action");
+                String username = key.getString("username");
+                long count = ((Number) group.get("count")).longValue();
+
+                String id = AuditRollup.idOf(AuditRollup.Granularity.HOUR, start, entityType, action, username);
+                AuditRollup rollup = rollups.computeIfAbsent(id, ignored -> AuditRollup.builder()
+                        .id(id)
+                        .granularity(AuditRollup.Granularity.HOUR)
+                        .start(start)
+                        .entityType(entityType)
+                        .action(action)
+                        .username(username)
+                        .build());
+                rollup.setCount(rollup.getCount() + count);
+            }
+        }
+        return new ArrayList<>(rollups.values());
+    }
+
+    @Override
+    public long countBetween(LocalDateTime from, LocalDateTime to) {
+        Query query = Query.query(timestampRange(from, to));
+        long count = 0;
+        for (String collection : liveCollections(from, to)) {
+            count += mongoTemplate.count(query, collection);
+        }
+        return count;
+    }
+
+    // Live monthly buckets that can hold records in [from, to), and the legacy collection
+    private List<String> liveCollections(LocalDateTime from, LocalDateTime to) {
+        List<String> collections = new ArrayList<>();
+        for (YearMonth month : buckets.monthsNewestFirst(Set.of(), from, to)) {
+            collections.add(AuditBuckets.collectionFor(month));
+        }
+        if (buckets.legacyExists()) {
+            collections.add(AuditBuckets.LEGACY_COLLECTION);
+        }
+        return collections;
+    }
+
+    private static Criteria timestampRange(LocalDateTime from, LocalDateTime to) {
+        Criteria range = Criteria.where("timestamp").lt(toDate(to));
+        if (from != null) {
+            range.gte(toDate(from));
+        }
+        return range;
+    }
+
+    private static Date toDate(LocalDateTime timestamp) {
+        return Date.from(timestamp.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    // Live and archived records of one month, newest first
+    private Stream<AuditLog> streamMonth(YearMonth month, AuditLogFilter filter, AuditLogCursor after, int batchSize) {
+        Stream<AuditLog> live = buckets.isLive(month)
+                ? mongoTemplate.stream(pageQuery(filter, after).cursorBatchSize(batchSize), AuditLog.class,
+                        AuditBuckets.collectionFor(month))
+                : null;
+        Stream<AuditLog> archived = archive.isArchived(month) ? archive.stream(month, filter, after) : null;
+
+        if (live == null) {
+            return archived != null ? archived : Stream.empty();
+        }
+        if (archived == null) {
+            return live;
+        }
+        // Late records written after the month was archived
+        return mergeNewestFirst(live, archived);
+    }
+
+    private static Stream<AuditLog> mergeNewestFirst(Stream<AuditLog> first, Stream<AuditLog> second) {
+        Iterator<AuditLog> left = first.iterator();
+        Iterator<AuditLog> right = second.iterator();
+        Iterator<AuditLog> merged = new Iterator<>() {
+            private AuditLog nextLeft = left.hasNext() ? left.next() : null;
+            private AuditLog nextRight = right.hasNext() ? right.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextLeft != null || nextRight != null;
+            }
+
+            @Override
+            public AuditLog next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                boolean takeLeft = nextRight == null
+                        || (nextLeft != null && NEWEST_FIRST.compare(nextLeft, nextRight) <= 0);
+                AuditLog result = takeLeft ? nextLeft : nextRight;
+                if (takeLeft) {
+                    nextLeft = left.hasNext() ? left.next() : null;
+                } else {
+                    nextRight = right.hasNext() ? right.next() : null;
+                }
+                return result;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(first::close)
+                .onClose(second::close);
+    }
+
+    // Months the filter and cursor can reach, newest first
+    private List<YearMonth> monthsToSearch(AuditLogFilter filter, AuditLogCursor after) {
+        LocalDateTime upper = filter.getTo();
+        if (after != null && (upper == null || after.timestamp().isBefore(upper))) {
+            upper = after.timestamp();
+        }
+        return buckets.monthsNewestFirst(archive.archivedMonths(), filter.getFrom(), upper);
+    }
+
+    private static Query pageQuery(AuditLogFilter filter, AuditLogCursor after) {
+        return new Query(toCriteria(filter, after))
+                .with(Sort.by(Sort.Direction.DESC, "timestamp", "id"));
+    }
+
+    // The order of the predicates does not matter to MongoDB. What lets the indexes in
+    // AuditBuckets serve these queries is their key order: equality fields, then timestamp
+    // and _id descending, which matches both the range and the sort
+    static Criteria toCriteria(AuditLogFilter filter, AuditLogCursor after) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter.getEntityType() != null) {
+            criteria.add(Criteria.where("entityType").is(filter.getEntityType()));
+        }
+        if (filter.getEntityId() != null) {
+            criteria.add(Criteria.where("entityId").is(filter.getEntityId()));
+        }
+        if (filter.getUsername() != null) {
+            criteria.add(Criteria.where("username").is(filter.getUsername()));
+        }
+        if (filter.getChangedField() != null) {
+            criteria.add(Criteria.where("changedFields").is(filter.getChangedField()));
+        }
+        if (filter.getFrom() != null || filter.getTo() != null) {
+            Criteria timestamp = Criteria.where("timestamp");
+            if (filter.getFrom() != null) {
+                timestamp.gte(filter.getFrom());
+            }
+            if (filter.getTo() != null) {
+                timestamp.lt(filter.getTo());
+            }
+            criteria.add(timestamp);
+        }
+        if (after != null) {
+            criteria.add(new Criteria().orOperator(
+                    Criteria.where("timestamp").lt(after.timestamp()),
+                    new Criteria().andOperator(
+                            Criteria.where("timestamp").is(after.timestamp()),
+                            Criteria.where("id").lt(after.id()))));
+        }
+        return criteria.isEmpty() ? new Criteria() : new Criteria().andOperator(criteria);
+    }
+}
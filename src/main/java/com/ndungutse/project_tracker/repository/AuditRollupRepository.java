@@ -0,0 +1,16 @@
+package com.ndungutse.project_tracker.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.ndungutse.project_tracker.model.AuditRollup;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AuditRollupRepository extends MongoRepository<AuditRollup, String>, AuditRollupRepositoryCustom {
+    List<AuditRollup> findByGranularityAndStartGreaterThanEqualAndStartLessThan(AuditRollup.Granularity granularity,
+            LocalDateTime from, LocalDateTime to);
+
+    boolean existsByGranularity(AuditRollup.Granularity granularity);
+}
@@ -0,0 +1,27 @@
+package com.ndungutse.project_tracker.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.ndungutse.project_tracker.dto.AuditStatsBucket;
+import com.ndungutse.project_tracker.model.AuditRollup;
+
+public interface AuditRollupRepositoryCustom {
+    String ENTITY_TYPE = "entityType";
+    String ACTION = "action";
+    String USERNAME = "username";
+
+    void ensureIndexes();
+
+    // Insert or overwrite rollups by id
+    void replaceAll(List<AuditRollup> rollups);
+
+    /**
+     * Sum rollups in [from, to) per bucket start and the given dimensions
+     * (entityType, action, username), oldest first. entityType and username
+     * filters are optional.
+     */
+    List<AuditStatsBucket> sum(AuditRollup.Granularity granularity, LocalDateTime from, LocalDateTime to,
+            Collection<String> groupBy, String entityType, String username);
+}
@@ -0,0 +1,91 @@
+package com.ndungutse.project_tracker.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.ndungutse.project_tracker.dto.AuditStatsBucket;
+import com.ndungutse.project_tracker.model.AuditRollup;
+
+public class AuditRollupRepositoryImpl implements AuditRollupRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public AuditRollupRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void ensureIndexes() {
+        mongoTemplate.indexOps(AuditRollup.class).ensureIndex(new Index()
+                .on("granularity", Sort.Direction.ASC)
+                .on("start", Sort.Direction.ASC)
+                .named("granularity_start"));
+    }
+
+    @Override
+    public void replaceAll(List<AuditRollup> rollups) {
+        if (rollups.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AuditRollup.class);
+        for (AuditRollup rollup : rollups) {
+            bulk.replaceOne(Query.query(Criteria.where("id").is(rollup.getId())), rollup,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public List<AuditStatsBucket> sum(AuditRollup.Granularity granularity, LocalDateTime from, LocalDateTime to,
+            Collection<String> groupBy, String entityType, String username) {
+        Criteria criteria = Criteria.where("granularity").is(granularity.name())
+                .and("start").gte(toDate(from)).lt(toDate(to));
+        if (entityType != null) {
+            criteria.and(ENTITY_TYPE).is(entityType);
+        }
+        if (username != null) {
+            criteria.and(USERNAME).is(username);
+        }
+
+        Document key = new Document("start", "$start");
+        for (String dimension : groupBy) {
+            key.append(dimension, "$" + dimension);
+        }
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                context -> new Document("$group", new Document("_id", key)
+                        .append("count", new Document("$sum", "$count"))),
+                context -> new Document("$sort", new Document("_id.start", 1)));
+
+        List<AuditStatsBucket> buckets = new ArrayList<>();
+        for (Document group : mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(AuditRollup.class),
+                Document.class)) {
+            Document id = group.get("_id", Document.class);
+            buckets.add(AuditStatsBucket.builder()
+                    .start(LocalDateTime.ofInstant(id.getDate("start").toInstant(), ZoneId.systemDefault()))
+                    .entityType(id.getString(ENTITY_TYPE))
+                    .action(id.getString(ACTION))
+                    .username(id.getString(USERNAME))
+                    .count(((Number) group.get("count")).longValue())
+                    .build());
+        }
+        return buckets;
+    }
+
+    private static Date toDate(LocalDateTime timestamp) {
+        return Date.from(timestamp.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
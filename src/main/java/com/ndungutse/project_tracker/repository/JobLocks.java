@@ -0,0 +1,50 @@
+package com.ndungutse.project_tracker.repository;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Leases in MongoDB for jobs that must run on one node at a time. A lock is a
+ * document keyed by the job name; taking it upserts the document only when
+ * its lease has run out, so while another node holds it the upsert collides
+ * with the existing id and fails. A node that dies keeps the lock until the
+ * lease expires.
+ */
+@Component
+public class JobLocks {
+    private static final String COLLECTION = "job_locks";
+
+    private final MongoTemplate mongoTemplate;
+    private final String owner = UUID.randomUUID().toString();
+
+    public JobLocks(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public boolean tryLock(String name, Duration lease) {
+        Date now = new Date();
+        Query free = new Query(Criteria.where("_id").is(name).and("lockedUntil").lte(now));
+        Update take = new Update()
+                .set("owner", owner)
+                .set("lockedUntil", new Date(now.getTime() + lease.toMillis()));
+        try {
+            mongoTemplate.upsert(free, take, COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    // Only releases a lock this node holds
+    public void unlock(String name) {
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(name).and("owner").is(owner)), COLLECTION);
+    }
+}
@@ -1,13 +1,18 @@
 package com.ndungutse.project_tracker.repository;
 
 import com.ndungutse.project_tracker.dto.TaskSummaryDTO;
+import com.ndungutse.project_tracker.dto.WorkloadDTO;
+import com.ndungutse.project_tracker.dto.projection.OpenTaskCountDto;
 import com.ndungutse.project_tracker.model.Task;
+import com.ndungutse.project_tracker.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -24,4 +29,29 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT new com.ndungutse.project_tracker.dto.TaskSummaryDTO(t.title, t.status, t.dueDate) " +
             "FROM Task t WHERE t.id = :taskId")
     TaskSummaryDTO findTaskSummaryDTOById(Long taskId);
+
+    // Open, done and overdue task counts of every user with the given role in one grouped query.
+    // Left joined so users without tasks are listed with zero counts.
+    @Query("SELECT new com.ndungutse.project_tracker.dto.WorkloadDTO(u.id, u.username, u.fullName, " +
+            "SUM(CASE WHEN t.status = false THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.status = true THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.status = false AND t.dueDate < :today THEN 1 ELSE 0 END)) " +
+            "FROM User u JOIN u.role r LEFT JOIN u.assignedTasks t " +
+            "WHERE r.roleName = :roleName " +
+            "GROUP BY u.id, u.username, u.fullName")
+    List<WorkloadDTO> findWorkloadByRole(@Param("roleName") String roleName, @Param("today") LocalDate today);
+
+    // Users without open tasks are not returned
+    @Query("SELECT t.assignedUser.id AS userId, COUNT(t) AS openTasks FROM Task t " +
+            "WHERE t.status = false AND t.assignedUser.id IN :userIds GROUP BY t.assignedUser.id")
+    List<OpenTaskCountDto> countOpenTasksByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // Bulk updates, run in the caller's transaction without loading the tasks
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.assignedUser = :assignee WHERE t.assignedUser.id = :userId AND t.status = false")
+    int reassignOpenTasks(@Param("userId") Long userId, @Param("assignee") User assignee);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.assignedUser = NULL WHERE t.assignedUser.id = :userId")
+    int unassignAll(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -1,9 +1,17 @@
 package com.ndungutse.project_tracker.repository;
 
+import com.ndungutse.project_tracker.dto.UserDTO;
+import com.ndungutse.project_tracker.dto.projection.ProvisionedUserDto;
+import com.ndungutse.project_tracker.dto.projection.UserSkillsDto;
 import com.ndungutse.project_tracker.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +20,54 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Keyset page of users after the given id, with the role joined into the same select.
+    // Prefixes must already be escaped with '!' and are matched against the start of the value.
+    @Query("SELECT new com.ndungutse.project_tracker.dto.UserDTO(u.id, u.username, u.email, r.id, r.roleName, u.skills, u.fullName) " +
+            "FROM User u JOIN u.role r " +
+            "WHERE u.id > :afterId " +
+            "AND u.username LIKE CONCAT(:usernamePrefix, '%') ESCAPE '!' " +
+            "AND u.email LIKE CONCAT(:emailPrefix, '%') ESCAPE '!' " +
+            "ORDER BY u.id")
+    List<UserDTO> findPageAfter(@Param("afterId") Long afterId,
+            @Param("usernamePrefix") String usernamePrefix,
+            @Param("emailPrefix") String emailPrefix,
+            Pageable pageable);
+
+    @Query("SELECT new com.ndungutse.project_tracker.dto.UserDTO(u.id, u.username, u.email, r.id, r.roleName, u.skills, u.fullName) " +
+            "FROM User u JOIN u.role r WHERE u.id IN :ids")
+    List<UserDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.id AS id, u.skills AS skills FROM User u WHERE u.skills IS NOT NULL")
+    List<UserSkillsDto> findAllSkills();
+
+    @Query("SELECT u.skills FROM User u WHERE u.id = :id")
+    Optional<String> findSkillsById(@Param("id") Long id);
+
+    // Insert the user or return the existing row in a single round trip. An existing user is
+    // only read: no row version is written, no lock is taken and no sequence value is used,
+    // since nextval only runs for a row that passes NOT EXISTS.
+    // Returns null when a concurrent insert of the same email committed during this statement,
+    // whose snapshot cannot see it; calling again returns that row.
+    @Query(value = "WITH ins AS (" +
+            "INSERT INTO users (id, username, password, email, full_name, role_id) " +
+            "SELECT nextval('users_seq'), :username, :password, :email, :fullName, :roleId " +
+            "WHERE NOT EXISTS (SELECT 1 FROM users WHERE email = :email) " +
+            "ON CONFLICT (email) DO NOTHING " +
+            "RETURNING id, username, email, role_id) " +
+            "SELECT id, username, email, role_id AS \"roleId\" FROM ins " +
+            "UNION ALL " +
+            "SELECT id, username, email, role_id FROM users WHERE email = :email " +
+            "LIMIT 1", nativeQuery = true)
+    ProvisionedUserDto upsertByEmail(@Param("email") String email,
+            @Param("username") String username,
+            @Param("password") String password,
+            @Param("fullName") String fullName,
+            @Param("roleId") Long roleId);
+}
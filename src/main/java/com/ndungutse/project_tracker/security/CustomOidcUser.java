@@ -0,0 +1,24 @@
+package com.ndungutse.project_tracker.security;
+
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+
+import com.ndungutse.project_tracker.model.User;
+
+/**
+ * OIDC principal that carries the application user provisioned during login,
+ * so the success handler does not have to look the user up again.
+ */
+public class CustomOidcUser extends DefaultOidcUser {
+    private final User user;
+
+    public CustomOidcUser(OidcUser oidcUser, User user) {
+        super(oidcUser.getAuthorities(), oidcUser.getIdToken(), oidcUser.getUserInfo());
+        this.user = user;
+    }
+
+    // Get the provisioned application user
+    public User getUser() {
+        return user;
+    }
+}
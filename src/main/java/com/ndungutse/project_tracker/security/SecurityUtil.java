@@ -2,8 +2,8 @@ package com.ndungutse.project_tracker.security;
 
 import com.ndungutse.project_tracker.model.Task;
 import com.ndungutse.project_tracker.model.User;
-import com.ndungutse.project_tracker.repository.TaskRepository;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -11,12 +11,6 @@ import org.springframework.stereotype.Component;
 @Component
 public class SecurityUtil {
 
-    private final TaskRepository taskRepository;
-
-    public SecurityUtil(TaskRepository taskRepository) {
-        this.taskRepository = taskRepository;
-    }
-
     /**
      * Get the currently authenticated user
      * 
@@ -32,16 +26,33 @@ public class SecurityUtil {
     }
 
     /**
-     * Check if the current user is assigned to a task
+     * Get the username of the current caller without failing when there is none
      * 
-     * @param taskId The ID of the task to check
-     * @return true if the user is assigned to the task, false otherwise
-     * @throws AccessDeniedException if the task doesn't exist
+     * @return The username, or "anonymous" if no user is authenticated
      */
-    public boolean isUserAssignedToTask(Long taskId) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new AccessDeniedException("Task not found"));
+    public String getCurrentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return "anonymous";
+        }
+        if (authentication.getPrincipal() instanceof CustomUserDetails userDetails) {
+            return userDetails.getUsername();
+        }
+        if (authentication.getPrincipal() instanceof CustomOidcUser oidcUser) {
+            return oidcUser.getUser().getUsername();
+        }
+        return authentication.getName();
+    }
 
+    /**
+     * Check if the current user is assigned to an already loaded task
+     * 
+     * @param task The task to check
+     * @return true if the user is assigned to the task, false otherwise
+     */
+    public boolean isUserAssignedToTask(Task task) {
+        // Reading the id of a lazy proxy does not initialize it
         User currentUser = getCurrentUser();
         return task.getAssignedUser() != null &&
                 task.getAssignedUser().getId().equals(currentUser.getId());
@@ -61,20 +72,31 @@ public class SecurityUtil {
     }
 
     /**
-     * Validate that the current user can update a task
+     * Validate that the current user's role can update tasks at all. Checked
+     * before the task is loaded, so a role that cannot update tasks gets a 403
+     * whether or not the task exists
      * 
-     * @param taskId The ID of the task to validate
-     * @throws AccessDeniedException if the user cannot update the task
+     * @throws AccessDeniedException if the user's role cannot update tasks
      */
-    public void validateTaskUpdateAccess(Long taskId) {
+    public void validateTaskUpdateRole() {
         // Admin and Manager can update any task
         if (hasRole("ADMIN") || hasRole("MANAGER") || hasRole("CONTRACTOR")) {
             // Other roles cannot update tasks
             throw new AccessDeniedException("You don't have permission to update this task");
         }
+    }
 
+    /**
+     * Validate that the current user can update an already loaded task, so the
+     * caller can authorize and update within the same load. The role itself is
+     * checked by {@link #validateTaskUpdateRole()}
+     * 
+     * @param task The task to validate
+     * @throws AccessDeniedException if the user cannot update the task
+     */
+    public void validateTaskUpdateAccess(Task task) {
         // Developers can only update tasks assigned to them
-        if (hasRole("DEVELOPER") && !isUserAssignedToTask(taskId)) {
+        if (hasRole("DEVELOPER") && !isUserAssignedToTask(task)) {
             throw new AccessDeniedException("You can only update tasks assigned to you");
         }
     }
@@ -0,0 +1,169 @@
+package com.ndungutse.project_tracker.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ndungutse.project_tracker.model.AuditLog;
+import com.ndungutse.project_tracker.repository.AuditArchive;
+import com.ndungutse.project_tracker.repository.AuditBuckets;
+import com.ndungutse.project_tracker.repository.JobLocks;
+
+/**
+ * Rolls monthly audit buckets that have gone cold into local archive
+ * segments and drops their collections. Off by default: the archive directory
+ * must be shared by every node that serves the audit API before this is
+ * enabled. Runs hold a MongoDB lease so only one node archives at a time. A
+ * month's collection is renamed (sealed) before it is read, so records written
+ * meanwhile go to a new live collection instead of being dropped with it, and
+ * it is only dropped when the segment holds every sealed record. Every node is
+ * told through a Redis channel to re-read the month once it changed.
+ */
+@Component
+public class AuditArchiveJob implements MessageListener {
+    public static final String CHANNEL = "audit:archived";
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditArchiveJob.class);
+
+    private static final String LOCK = "audit-archive";
+
+    private final AuditBuckets buckets;
+    private final AuditArchive archive;
+    private final JobLocks jobLocks;
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final boolean enabled;
+    private final int hotMonths;
+    private final Duration lockLease;
+
+    public AuditArchiveJob(
+            AuditBuckets buckets,
+            AuditArchive archive,
+            JobLocks jobLocks,
+            StringRedisTemplate redisTemplate,
+            @Value("${audit.archive.enabled:false}") boolean enabled,
+            @Value("${audit.archive.hot-months:6}") int hotMonths,
+            @Value("${audit.archive.lock-lease-ms:3600000}") long lockLeaseMs) {
+        this.buckets = buckets;
+        this.archive = archive;
+        this.jobLocks = jobLocks;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.hotMonths = hotMonths;
+        this.lockLease = Duration.ofMillis(lockLeaseMs);
+    }
+
+    @Scheduled(cron = "${audit.archive.cron:0 30 3 * * *}")
+    public void archiveColdMonths() {
+        if (!enabled) {
+            return;
+        }
+
+        if (!jobLocks.tryLock(LOCK, lockLease)) {
+            logger.info("Audit archive job is running on another node");
+            return;
+        }
+        try {
+            archiveMonthsBefore(YearMonth.now().minusMonths(hotMonths));
+        } finally {
+            jobLocks.unlock(LOCK);
+        }
+    }
+
+    private void archiveMonthsBefore(YearMonth cutoff) {
+        // Months sealed by an interrupted run are resumed
+        Set<YearMonth> sealed = buckets.sealedMonths();
+        Set<YearMonth> candidates = new TreeSet<>(sealed);
+        candidates.addAll(buckets.liveMonths());
+
+        for (YearMonth month : candidates) {
+            if (!month.isBefore(cutoff)) {
+                break;
+            }
+            boolean resumed = sealed.contains(month);
+            if (!resumed && archive.isArchived(month)) {
+                // Segments are never rewritten, late records for an archived month stay live
+                logger.warn("Audit month {} is already archived but still has a live collection", month);
+                continue;
+            }
+
+            try {
+                if (!resumed && !buckets.seal(month)) {
+                    // Dropped by an earlier run or never written, nothing to archive
+                    broadcast(month);
+                    continue;
+                }
+
+                long archived = 0;
+                if (buckets.countSealed(month) > 0) {
+                    try (Stream<AuditLog> records = buckets.streamSealed(month)) {
+                        archived = archive.archive(month, records.iterator());
+                    }
+                }
+                // Nothing writes to a sealed collection, a mismatch means the segment is incomplete
+                long expected = buckets.countSealed(month);
+                if (archived != expected) {
+                    logger.warn("Audit month {} archived {} of {} records, will retry", month, archived, expected);
+                    archive.discard(month);
+                    broadcast(month);
+                    continue;
+                }
+                buckets.dropSealed(month);
+                broadcast(month);
+                logger.info("Archived {} audit logs of {}", archived, month);
+            } catch (Exception e) {
+                // The sealed collection is kept, the next run resumes it
+                logger.error("Failed to archive audit month {}: {}", month, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Tell every node, this one included, to re-read the month's archive index
+     * and live collection. Nodes that still saw the month as live stop reading
+     * the dropped collection, and one that recreated it with a late insert gets
+     * its indexes back.
+     */
+    private void broadcast(YearMonth month) {
+        refresh(month);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + "|" + month);
+        } catch (Exception e) {
+            // Other nodes catch up on their next restart
+            logger.warn("Could not broadcast archive of audit month {}: {}", month, e.getMessage());
+        }
+    }
+
+    private void refresh(YearMonth month) {
+        try {
+            archive.reload(month);
+        } catch (IOException e) {
+            logger.error("Failed to reload archive index of {}: {}", month, e.getMessage(), e);
+        }
+        buckets.refresh(month);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody());
+        int separator = body.indexOf('|');
+        // Ignore our own broadcasts, this node has already refreshed
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        refresh(YearMonth.parse(body.substring(separator + 1)));
+    }
+}
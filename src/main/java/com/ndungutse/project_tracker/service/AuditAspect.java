@@ -0,0 +1,124 @@
+package com.ndungutse.project_tracker.service;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+
+import com.ndungutse.project_tracker.security.SecurityUtil;
+
+/**
+ * Records an audit event for every method annotated with {@link Audited}.
+ * Matching is decided once per method when the service proxies are created,
+ * so methods of entity types listed in audit.disabled-entity-types (or all of
+ * them when audit.enabled is false) are not intercepted at all.
+ */
+@Component
+public class AuditAspect extends StaticMethodMatcherPointcutAdvisor implements MethodInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(AuditAspect.class);
+
+    private static final ExpressionParser parser = new SpelExpressionParser();
+    private static final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+
+    // Looked up lazily so the advisor does not force the audit beans to be created before the proxies
+    private final ObjectProvider<AuditService> auditService;
+    private final ObjectProvider<SecurityUtil> securityUtil;
+    private final boolean enabled;
+    private final Set<String> disabledEntityTypes;
+
+    private final Map<Method, CompiledAudit> compiled = new ConcurrentHashMap<>();
+
+    public AuditAspect(
+            ObjectProvider<AuditService> auditService,
+            ObjectProvider<SecurityUtil> securityUtil,
+            @Value("${audit.enabled:true}") boolean enabled,
+            @Value("${audit.disabled-entity-types:}") Set<String> disabledEntityTypes) {
+        this.auditService = auditService;
+        this.securityUtil = securityUtil;
+        this.enabled = enabled;
+        this.disabledEntityTypes = Set.copyOf(disabledEntityTypes);
+        setAdvice(this);
+        // Outside the transaction and cache advice, so only committed changes are audited
+        setOrder(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        if (!enabled) {
+            return false;
+        }
+        Audited audited = findAudited(method, targetClass);
+        return audited != null && !disabledEntityTypes.contains(audited.entityType());
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+
+        Object value = result;
+        if (result instanceof Optional<?> optional) {
+            if (optional.isEmpty()) {
+                // Nothing was changed
+                return result;
+            }
+            value = optional.get();
+        }
+
+        try {
+            Object target = invocation.getThis();
+            Class<?> targetClass = target != null ? AopUtils.getTargetClass(target) : invocation.getMethod().getDeclaringClass();
+            CompiledAudit audit = compiled.computeIfAbsent(invocation.getMethod(), method -> compile(method, targetClass));
+
+            MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(target, audit.method(),
+                    invocation.getArguments(), parameterNames);
+            context.setVariable("result", value);
+
+            auditService.getObject().logAction(
+                    audit.entityType(),
+                    audit.id().getValue(context, Long.class),
+                    audit.action().name(),
+                    securityUtil.getObject().getCurrentUsername(),
+                    audit.data().getValue(context));
+        } catch (Exception e) {
+            // Never fail the audited operation because of auditing
+            logger.error("Failed to audit {}: {}", invocation.getMethod().getName(), e.getMessage());
+        }
+        return result;
+    }
+
+    private static Audited findAudited(Method method, Class<?> targetClass) {
+        return AnnotatedElementUtils.findMergedAnnotation(AopUtils.getMostSpecificMethod(method, targetClass),
+                Audited.class);
+    }
+
+    private static CompiledAudit compile(Method method, Class<?> targetClass) {
+        Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+        Audited audited = AnnotatedElementUtils.findMergedAnnotation(specific, Audited.class);
+        return new CompiledAudit(specific, audited.entityType(), audited.action(),
+                parser.parseExpression(audited.id()), parser.parseExpression(audited.data()));
+    }
+
+    // Parsed expressions of one audited method
+    private record CompiledAudit(Method method, String entityType, Audited.Action action, Expression id,
+            Expression data) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.ndungutse.project_tracker.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * An audited change as captured on the request thread. The state is kept as
+ * the object the service returned and is only serialized by the audit
+ * writer, off the request thread.
+ */
+public record AuditEvent(
+        String id,
+        String entityType,
+        Long entityId,
+        String action,
+        String username,
+        LocalDateTime timestamp,
+        Object state) {
+}
@@ -0,0 +1,153 @@
+package com.ndungutse.project_tracker.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ndungutse.project_tracker.dto.AuditStatsBucket;
+import com.ndungutse.project_tracker.model.AuditRollup;
+import com.ndungutse.project_tracker.repository.AuditLogRepository;
+import com.ndungutse.project_tracker.repository.AuditRollupRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Keeps the audit rollups used by the activity charts up to date. Every run
+ * recounts the hours in the lookback window from the raw audit logs with an
+ * aggregation pipeline and replaces their hourly and daily rollups, so runs
+ * are idempotent and late records (for example replayed from the spool) are
+ * picked up as long as they land within the window. Each run then checks the
+ * stored rollups of the window against a raw count (audit.rollup.mismatch).
+ */
+@Component
+public class AuditRollupJob {
+    private static final Logger logger = LoggerFactory.getLogger(AuditRollupJob.class);
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditRollupRepository auditRollupRepository;
+    private final boolean enabled;
+    private final int lookbackHours;
+    private final Counter mismatchCounter;
+
+    public AuditRollupJob(
+            AuditLogRepository auditLogRepository,
+            AuditRollupRepository auditRollupRepository,
+            MeterRegistry meterRegistry,
+            @Value("${audit.rollup.enabled:true}") boolean enabled,
+            @Value("${audit.rollup.lookback-hours:48}") int lookbackHours) {
+        this.auditLogRepository = auditLogRepository;
+        this.auditRollupRepository = auditRollupRepository;
+        this.enabled = enabled;
+        this.lookbackHours = lookbackHours;
+        this.mismatchCounter = Counter.builder("audit.rollup.mismatch")
+                .description("Number of rollup windows whose total differs from a raw count of the audit logs")
+                .register(meterRegistry);
+    }
+
+    // The first start counts everything that is still in MongoDB
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        auditRollupRepository.ensureIndexes();
+        if (!auditRollupRepository.existsByGranularity(AuditRollup.Granularity.HOUR)) {
+            rebuild(null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${audit.rollup.interval-ms:300000}",
+            initialDelayString = "${audit.rollup.interval-ms:300000}")
+    public void rollUpRecentHours() {
+        if (!enabled) {
+            return;
+        }
+        rebuild(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(lookbackHours));
+    }
+
+    private void rebuild(LocalDateTime from) {
+        try {
+            LocalDateTime to = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            List<AuditRollup> hours = auditLogRepository.countByHour(from, to);
+            auditRollupRepository.replaceAll(hours);
+
+            // Days are summed from the hourly rollups, starting at the first day this run touched
+            LocalDateTime firstDay = from != null
+                    ? from.truncatedTo(ChronoUnit.DAYS)
+                    : hours.stream().map(AuditRollup::getStart).min(LocalDateTime::compareTo)
+                            .orElse(to).truncatedTo(ChronoUnit.DAYS);
+            auditRollupRepository.replaceAll(sumDays(firstDay, to));
+
+            logger.debug("Rolled up {} hourly audit buckets since {}", hours.size(), firstDay);
+            if (from != null) {
+                verify(from, LocalDateTime.now().truncatedTo(ChronoUnit.HOURS));
+            }
+        } catch (Exception e) {
+            // The next run covers the same hours again
+            logger.error("Failed to roll up audit logs: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Check the stored rollups of the window against a plain count of the raw
+     * records: every hour in [from, to), and every whole day in it. The current
+     * hour is left out as records are still arriving. A mismatch is corrected
+     * by a later run if it was a late record; one that persists is a bug.
+     */
+    private void verify(LocalDateTime from, LocalDateTime to) {
+        check(AuditRollup.Granularity.HOUR, from, to);
+
+        LocalDateTime firstDay = from.truncatedTo(ChronoUnit.DAYS);
+        if (firstDay.isBefore(from)) {
+            firstDay = firstDay.plusDays(1);
+        }
+        LocalDateTime lastDay = to.truncatedTo(ChronoUnit.DAYS);
+        if (firstDay.isBefore(lastDay)) {
+            check(AuditRollup.Granularity.DAY, firstDay, lastDay);
+        }
+    }
+
+    private void check(AuditRollup.Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        long rolledUp = auditRollupRepository.sum(granularity, from, to, List.of(), null, null).stream()
+                .mapToLong(AuditStatsBucket::getCount)
+                .sum();
+        long raw = auditLogRepository.countBetween(from, to);
+        if (rolledUp != raw) {
+            mismatchCounter.increment();
+            logger.warn("{} audit rollups from {} to {} count {} events, the raw audit logs {}",
+                    granularity, from, to, rolledUp, raw);
+        }
+    }
+
+    private List<AuditRollup> sumDays(LocalDateTime from, LocalDateTime to) {
+        Map<String, AuditRollup> days = new LinkedHashMap<>();
+        for (AuditRollup hour : auditRollupRepository.findByGranularityAndStartGreaterThanEqualAndStartLessThan(
+                AuditRollup.Granularity.HOUR, from, to.truncatedTo(ChronoUnit.DAYS).plusDays(1))) {
+            LocalDateTime day = hour.getStart().truncatedTo(ChronoUnit.DAYS);
+            String id = AuditRollup.idOf(AuditRollup.Granularity.DAY, day, hour.getEntityType(), hour.getAction(),
+                    hour.getUsername());
+            AuditRollup rollup = days.computeIfAbsent(id, ignored -> AuditRollup.builder()
+                    .id(id)
+                    .granularity(AuditRollup.Granularity.DAY)
+                    .start(day)
+                    .entityType(hour.getEntityType())
+                    .action(hour.getAction())
+                    .username(hour.getUsername())
+                    .build());
+            rollup.setCount(rollup.getCount() + hour.getCount());
+        }
+        return new ArrayList<>(days.values());
+    }
+}
@@ -1,21 +1,64 @@
 package com.ndungutse.project_tracker.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ndungutse.project_tracker.dto.AuditLogCursor;
+import com.ndungutse.project_tracker.dto.AuditLogDTO;
+import com.ndungutse.project_tracker.dto.AuditLogExportRecord;
+import com.ndungutse.project_tracker.dto.AuditLogFilter;
+import com.ndungutse.project_tracker.dto.AuditStatsBucket;
+import com.ndungutse.project_tracker.dto.CursorPageResponse;
+import com.ndungutse.project_tracker.exception.ResourceNotFoundException;
 import com.ndungutse.project_tracker.model.AuditLog;
+import com.ndungutse.project_tracker.model.AuditRollup;
 import com.ndungutse.project_tracker.repository.AuditLogRepository;
+import com.ndungutse.project_tracker.repository.AuditRollupRepository;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import io.micrometer.core.annotation.Timed;
 
 @Service
+@Timed("service.method")
 public class AuditService {
+    private static final Set<String> STATS_DIMENSIONS = Set.of(
+            AuditRollupRepository.ENTITY_TYPE, AuditRollupRepository.ACTION, AuditRollupRepository.USERNAME);
+
     private final AuditLogRepository auditLogRepository;
+    private final AuditRollupRepository auditRollupRepository;
+    private final AuditWriter auditWriter;
+    private final AuditTimelineCache timelineCache;
     private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+    private final int exportBatchSize;
 
-    public AuditService(AuditLogRepository auditLogRepository, ObjectMapper objectMapper) {
+    public AuditService(AuditLogRepository auditLogRepository, AuditRollupRepository auditRollupRepository,
+            AuditWriter auditWriter, AuditTimelineCache timelineCache, ObjectMapper objectMapper,
+            @Value("${audit.query.max-page-size:500}") int maxPageSize,
+            @Value("${audit.export.batch-size:1000}") int exportBatchSize) {
         this.auditLogRepository = auditLogRepository;
+        this.auditRollupRepository = auditRollupRepository;
+        this.auditWriter = auditWriter;
+        this.timelineCache = timelineCache;
         this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+        this.exportBatchSize = exportBatchSize;
     }
 
     public void logCreateAction(String entityType, Long entityId, String username, Object data) {
@@ -30,30 +73,135 @@ public class AuditService {
         logAction(entityType, entityId, "DELETE", username, data);
     }
 
-    private void logAction(String entityType, Long entityId, String action, String username, Object data) {
+    // Called by AuditAspect for @Audited service methods
+    public void logAction(String entityType, Long entityId, String action, String username, Object data) {
+        // Assign the id up front so the next update can reference this record as its base
+        AuditEvent event = new AuditEvent(new ObjectId().toHexString(), entityType, entityId, action, username,
+                LocalDateTime.now(), data);
+        // Serialized and written in batches by the background writer, off the request thread
+        auditWriter.submit(event);
+    }
+
+    /**
+     * Rebuild the full entity state as of the given audit record by starting
+     * from the nearest keyframe and applying the patches that lead to it.
+     */
+    public JsonNode reconstructSnapshot(String auditLogId) {
+        Deque<AuditLog> chain = new ArrayDeque<>();
+        AuditLog current = findById(auditLogId);
+        while (AuditLog.ENCODING_JSON_PATCH.equals(current.getEncoding())) {
+            chain.push(current);
+            current = findById(current.getBaseId());
+        }
+
         try {
-            String dataSnapshot = objectMapper.writeValueAsString(data);
-            AuditLog auditLog = new AuditLog(entityType, entityId, action, username, dataSnapshot);
-            auditLogRepository.save(auditLog);
+            JsonNode state = current.getDataSnapshot() != null
+                    ? objectMapper.readTree(current.getDataSnapshot())
+                    : BsonSnapshots.toJson(current.getSnapshot());
+            while (!chain.isEmpty()) {
+                AuditLog delta = chain.pop();
+                JsonNode patch = delta.getDataSnapshot() != null
+                        ? objectMapper.readTree(delta.getDataSnapshot())
+                        : BsonSnapshots.toJson(delta.getPatch());
+                state = JsonPatch.apply(state, patch);
+            }
+            return state;
         } catch (JsonProcessingException e) {
-            // Log the error but don't fail the main operation
-            System.err.println("Error serializing data for audit log: " + e.getMessage());
+            throw new IllegalStateException("Corrupt audit snapshot for audit log " + auditLogId, e);
         }
     }
 
-    public List<AuditLog> findByEntityType(String entityType) {
-        return auditLogRepository.findByEntityType(entityType);
+    private AuditLog findById(String id) {
+        return auditLogRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Audit log not found with id: " + id));
     }
 
-    public List<AuditLog> findByUsername(String username) {
-        return auditLogRepository.findByUsername(username);
+    // Cursor paginated, newest first. Fetches one extra record to know if there is a next page.
+    public CursorPageResponse<AuditLogDTO> findPage(AuditLogFilter filter, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        AuditLogCursor after = cursor != null ? AuditLogCursor.decode(cursor) : null;
+
+        List<AuditLog> logs = auditLogRepository.findPage(filter, after, pageSize + 1);
+        boolean hasNext = logs.size() > pageSize;
+        if (hasNext) {
+            logs = logs.subList(0, pageSize);
+        }
+
+        List<AuditLogDTO> content = logs.stream()
+                .map(AuditLogDTO::fromEntity)
+                .collect(Collectors.toList());
+        String nextCursor = hasNext ? AuditLogCursor.of(logs.get(logs.size() - 1)).encode() : null;
+        return new CursorPageResponse<>(content, nextCursor, hasNext);
     }
 
-    public List<AuditLog> findByEntityTypeAndUsername(String entityType, String username) {
-        return auditLogRepository.findByEntityTypeAndUsername(entityType, username);
+    /**
+     * Change history of one entity, newest first, served from the
+     * (entityType, entityId, timestamp) index. The first page is cached briefly
+     * since it is shown on every entity detail view.
+     */
+    public CursorPageResponse<AuditLogDTO> timeline(String entityType, Long entityId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        AuditLogFilter filter = AuditLogFilter.builder()
+                .entityType(entityType)
+                .entityId(entityId)
+                .build();
+        if (cursor != null) {
+            return findPage(filter, cursor, pageSize);
+        }
+
+        CursorPageResponse<AuditLogDTO> cached = timelineCache.get(entityType, entityId, pageSize);
+        if (cached != null) {
+            return cached;
+        }
+        long version = timelineCache.version();
+        CursorPageResponse<AuditLogDTO> page = findPage(filter, null, pageSize);
+        timelineCache.put(entityType, entityId, pageSize, page, version);
+        return page;
     }
 
-    public List<AuditLog> findAll() {
-        return auditLogRepository.findAll();
+    /**
+     * Write every matching audit log as gzip-compressed NDJSON, newest first.
+     * Records are read from a MongoDB cursor and written one at a time, so memory
+     * use does not depend on the size of the export. Each line carries the
+     * cursor to resume from if the download is interrupted.
+     */
+    public void export(AuditLogFilter filter, AuditLogCursor after, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(AuditLogExportRecord.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (Stream<AuditLog> logs = auditLogRepository.stream(filter, after, exportBatchSize)) {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, 8192);
+            for (AuditLog auditLog : (Iterable<AuditLog>) logs::iterator) {
+                AuditLogExportRecord record = new AuditLogExportRecord(
+                        AuditLogCursor.of(auditLog).encode(), AuditLogDTO.fromEntity(auditLog));
+                writer.writeValue(gzip, record);
+                gzip.write('\n');
+            }
+            gzip.finish();
+        }
+    }
+
+    /**
+     * Activity counts per hour or day, read from the pre-aggregated rollups
+     * rather than the raw audit logs. Defaults to the last 7 days by hour or the
+     * last 90 days by day.
+     */
+    public List<AuditStatsBucket> stats(AuditRollup.Granularity granularity, LocalDateTime from, LocalDateTime to,
+            List<String> groupBy, String entityType, String username) {
+        for (String dimension : groupBy) {
+            if (!STATS_DIMENSIONS.contains(dimension)) {
+                throw new IllegalArgumentException("Cannot group audit stats by " + dimension
+                        + ", expected one of " + STATS_DIMENSIONS);
+            }
+        }
+
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from
+                : end.minusDays(granularity == AuditRollup.Granularity.HOUR ? 7 : 90);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        return auditRollupRepository.sum(granularity, start, end, groupBy, entityType, username);
     }
-}
\ No newline at end of file
+}
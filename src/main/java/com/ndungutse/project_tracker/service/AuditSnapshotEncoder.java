@@ -0,0 +1,167 @@
+package com.ndungutse.project_tracker.service;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.ndungutse.project_tracker.model.AuditLog;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Decides how each audit snapshot is stored. Updates are stored as a JSON
+ * Patch against the previous audit record of the same entity when that
+ * record's state is still known locally; otherwise, and on every
+ * keyframe-interval-th change, the full state is stored as a keyframe.
+ */
+@Component
+public class AuditSnapshotEncoder {
+    private final ObjectMapper objectMapper;
+    private final int keyframeInterval;
+    private final int maxTrackedEntities;
+    private final DistributionSummary fullValues;
+    private final DistributionSummary patchValues;
+    // Per DTO type, resolved once
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    // Last known state per entity, least recently used entries are evicted
+    private final Map<String, LastState> lastStates;
+
+    public AuditSnapshotEncoder(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${audit.snapshot.keyframe-interval:20}") int keyframeInterval,
+            @Value("${audit.snapshot.max-tracked-entities:10000}") int maxTrackedEntities) {
+        this.objectMapper = objectMapper;
+        this.keyframeInterval = keyframeInterval;
+        this.maxTrackedEntities = maxTrackedEntities;
+        this.lastStates = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LastState> eldest) {
+                return size() > AuditSnapshotEncoder.this.maxTrackedEntities;
+            }
+        };
+        this.fullValues = DistributionSummary.builder("audit.snapshot.values")
+                .description("Number of fields in full snapshots or operations in patches")
+                .tag("encoding", AuditLog.ENCODING_FULL)
+                .register(meterRegistry);
+        this.patchValues = DistributionSummary.builder("audit.snapshot.values")
+                .description("Number of fields in full snapshots or operations in patches")
+                .tag("encoding", AuditLog.ENCODING_JSON_PATCH)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Serialize a captured event into the audit log that gets stored.
+     */
+    public AuditLog toAuditLog(AuditEvent event) {
+        JsonNode state = event.state() != null ? toTree(event.state()) : NullNode.getInstance();
+        AuditLog auditLog = new AuditLog(event.entityType(), event.entityId(), event.action(), event.username(), null);
+        auditLog.setId(event.id());
+        auditLog.setTimestamp(event.timestamp());
+        encode(auditLog, state);
+        return auditLog;
+    }
+
+    /**
+     * Encode a record the spool holds as {@link AuditLog#ENCODING_PENDING}, its
+     * state being the JSON text the request thread wrote.
+     */
+    public AuditLog fromSpooled(AuditLog pending) {
+        JsonNode state;
+        try {
+            state = pending.getDataSnapshot() != null ? objectMapper.readTree(pending.getDataSnapshot())
+                    : NullNode.getInstance();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read spooled state of audit log " + pending.getId(), e);
+        }
+        AuditLog auditLog = new AuditLog(pending.getEntityType(), pending.getEntityId(), pending.getAction(),
+                pending.getUsername(), null);
+        auditLog.setId(pending.getId());
+        auditLog.setTimestamp(pending.getTimestamp());
+        encode(auditLog, state);
+        return auditLog;
+    }
+
+    // Uses a writer with the root serializer already resolved for the DTO type
+    private JsonNode toTree(Object value) {
+        ObjectWriter writer = writers.computeIfAbsent(value.getClass(), objectMapper::writerFor);
+        TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+        try {
+            writer.writeValue(buffer, value);
+            try (JsonParser parser = buffer.asParser()) {
+                return objectMapper.readTree(parser);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Fill in the snapshot fields of an audit log whose id is already assigned.
+     */
+    public void encode(AuditLog auditLog, JsonNode state) {
+        String key = auditLog.getEntityType() + ":" + auditLog.getEntityId();
+
+        synchronized (lastStates) {
+            LastState previous = lastStates.get(key);
+            boolean update = "UPDATE".equals(auditLog.getAction());
+            boolean keyframe = previous == null
+                    || !update
+                    || previous.sinceKeyframe() + 1 >= keyframeInterval;
+
+            // Diffed even for keyframes so changed fields can be queried on every update
+            ArrayNode diff = update && previous != null ? JsonPatch.diff(previous.state(), state) : null;
+            if (diff != null) {
+                auditLog.setChangedFields(JsonPatch.changedFields(diff));
+            }
+
+            if (keyframe) {
+                auditLog.setEncoding(AuditLog.ENCODING_FULL);
+                auditLog.setSnapshot(BsonSnapshots.toDocument(state));
+                fullValues.record(state.size());
+            } else {
+                auditLog.setEncoding(AuditLog.ENCODING_JSON_PATCH);
+                auditLog.setBaseId(previous.auditId());
+                auditLog.setPatch(BsonSnapshots.toDocuments(diff));
+                patchValues.record(diff.size());
+            }
+
+            if ("DELETE".equals(auditLog.getAction())) {
+                lastStates.remove(key);
+            } else {
+                lastStates.put(key, new LastState(state, auditLog.getId(),
+                        keyframe ? 0 : previous.sinceKeyframe() + 1));
+            }
+        }
+    }
+
+    /**
+     * Forget the last known state of the entities of audit logs that were not
+     * stored, so their next update is a keyframe instead of a patch against a
+     * record that does not exist.
+     */
+    public void forget(List<AuditLog> auditLogs) {
+        synchronized (lastStates) {
+            for (AuditLog auditLog : auditLogs) {
+                lastStates.remove(auditLog.getEntityType() + ":" + auditLog.getEntityId());
+            }
+        }
+    }
+
+    private record LastState(JsonNode state, String auditId, int sinceKeyframe) {
+    }
+}
@@ -0,0 +1,336 @@
+package com.ndungutse.project_tracker.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ndungutse.project_tracker.model.AuditLog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Local write-ahead spool for audit logs that could not be written to MongoDB,
+ * and for raw events that could not be queued for the writer. Records are
+ * appended to memory-mapped segment files of a fixed size; each record is
+ * framed as [length][CRC32][JSON] so a torn write at the tail of a segment is
+ * detected and skipped. Every append is forced to disk before it returns, so
+ * spooled records survive a machine crash as well as a process crash. A full segment is sealed and a new one is
+ * started. Sealed segments are replayed oldest first and deleted once every
+ * record in them has been written, so a segment may be replayed more than
+ * once and the writes must be idempotent by record id.
+ */
+@Component
+public class AuditSpool {
+    private static final Logger logger = LoggerFactory.getLogger(AuditSpool.class);
+
+    private static final String SEGMENT_PREFIX = "spool-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final Path directory;
+    private final int segmentSize;
+
+    // Sealed segments waiting to be replayed, by sequence number, with their record counts
+    private final ConcurrentSkipListMap<Long, Long> sealed = new ConcurrentSkipListMap<>();
+    private final AtomicLong backlog = new AtomicLong();
+    private final Counter corruptCounter;
+
+    // Guarded by this
+    private final PayloadBuffer payload = new PayloadBuffer();
+    private long activeSequence;
+    private FileChannel activeChannel;
+    private MappedByteBuffer activeBuffer;
+    private long activeRecords;
+    private int forcedPosition;
+
+    public AuditSpool(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${audit.spool.directory:audit-spool}") String directory,
+            @Value("${audit.spool.segment-size-bytes:16777216}") int segmentSize) {
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writerFor(AuditLog.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSize;
+
+        Gauge.builder("audit.spool.backlog", backlog, AtomicLong::get)
+                .description("Number of spooled audit logs waiting to be replayed into MongoDB")
+                .register(meterRegistry);
+        Gauge.builder("audit.spool.segments", sealed, Map::size)
+                .description("Number of sealed spool segments waiting to be replayed")
+                .register(meterRegistry);
+        this.corruptCounter = Counter.builder("audit.spool.corrupt")
+                .description("Number of spooled records skipped because their checksum did not match")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Pick up segments left over from a previous run. They are all treated as
+     * sealed; new records go to a fresh segment.
+     */
+    @PostConstruct
+    public void load() throws IOException {
+        Files.createDirectories(directory);
+        long lastSequence = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Long sequence = sequenceOf(file);
+                if (sequence == null) {
+                    continue;
+                }
+                long records = countRecords(file);
+                if (records == 0) {
+                    Files.delete(file);
+                } else {
+                    sealed.put(sequence, records);
+                    backlog.addAndGet(records);
+                }
+                lastSequence = Math.max(lastSequence, sequence);
+            }
+        }
+        activeSequence = lastSequence;
+        if (!sealed.isEmpty()) {
+            logger.info("Found {} spooled audit logs in {} segments", backlog.get(), sealed.size());
+        }
+    }
+
+    public long backlog() {
+        return backlog.get();
+    }
+
+    /**
+     * Append records to the active segment, rotating when it is full.
+     */
+    public synchronized void append(List<AuditLog> auditLogs) throws IOException {
+        for (AuditLog auditLog : auditLogs) {
+            // Serialized into a buffer reused across appends instead of a new array per record
+            payload.reset();
+            writer.writeValue(payload, auditLog);
+            writeFrame(auditLog.getId(), payload.array(), payload.size());
+        }
+        forceActive();
+    }
+
+    /**
+     * Append events that were never encoded, as {@link AuditLog#ENCODING_PENDING}
+     * records. Called on request threads, so the events are serialized before
+     * the lock is taken and only the copy into the segment holds it.
+     */
+    public void appendEvents(List<AuditEvent> events) throws IOException {
+        List<byte[]> payloads = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            AuditLog pending = new AuditLog(event.entityType(), event.entityId(), event.action(), event.username(),
+                    objectMapper.writeValueAsString(event.state()));
+            pending.setId(event.id());
+            pending.setTimestamp(event.timestamp());
+            pending.setEncoding(AuditLog.ENCODING_PENDING);
+            payloads.add(writer.writeValueAsBytes(pending));
+        }
+        synchronized (this) {
+            for (int i = 0; i < payloads.size(); i++) {
+                writeFrame(events.get(i).id(), payloads.get(i), payloads.get(i).length);
+            }
+            forceActive();
+        }
+    }
+
+    // Caller holds the lock
+    private void writeFrame(String id, byte[] data, int length) throws IOException {
+        int frame = HEADER_BYTES + length;
+        if (frame + HEADER_BYTES > segmentSize) {
+            throw new IOException("Audit log " + id + " is larger than a spool segment");
+        }
+        if (activeBuffer == null || activeBuffer.remaining() < frame + HEADER_BYTES) {
+            rotate();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        // Payload and checksum go in before the length so a reader never sees a length without its data
+        int start = activeBuffer.position();
+        activeBuffer.position(start + Integer.BYTES);
+        activeBuffer.putInt((int) crc.getValue());
+        activeBuffer.put(data, 0, length);
+        activeBuffer.putInt(start, length);
+
+        activeRecords++;
+        backlog.incrementAndGet();
+    }
+
+    // Flush the frames written since the last force to disk. Caller holds the lock.
+    private void forceActive() {
+        if (activeBuffer != null && activeBuffer.position() > forcedPosition) {
+            activeBuffer.force(forcedPosition, activeBuffer.position() - forcedPosition);
+            forcedPosition = activeBuffer.position();
+        }
+    }
+
+    /**
+     * Seal the active segment so it can be replayed, even if it is not full.
+     */
+    public synchronized void seal() throws IOException {
+        if (activeRecords > 0) {
+            rotate();
+        }
+    }
+
+    // Force and seal the active segment and map a new one. Caller holds the lock.
+    private void rotate() throws IOException {
+        closeActive();
+        activeSequence++;
+        activeChannel = FileChannel.open(segmentPath(activeSequence), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        activeRecords = 0;
+        forcedPosition = 0;
+    }
+
+    private void closeActive() throws IOException {
+        if (activeChannel == null) {
+            return;
+        }
+        activeBuffer.force();
+        activeChannel.close();
+        if (activeRecords > 0) {
+            sealed.put(activeSequence, activeRecords);
+        } else {
+            Files.deleteIfExists(segmentPath(activeSequence));
+        }
+        activeChannel = null;
+        activeBuffer = null;
+    }
+
+    /**
+     * Replay sealed segments, oldest first, in batches of records unique
+     * within their segment. A segment is deleted once all of its batches were
+     * accepted; if the sink throws, the segment stays and is replayed from the
+     * start next time.
+     *
+     * @return number of records replayed
+     */
+    public long replay(int batchSize, Consumer<List<AuditLog>> sink) throws IOException {
+        long replayed = 0;
+        for (Map.Entry<Long, Long> segment : sealed.entrySet()) {
+            Path file = segmentPath(segment.getKey());
+            // Keep the latest copy of each id across the segment, a record can be spooled more than once
+            Map<String, AuditLog> unique = new LinkedHashMap<>();
+            for (AuditLog auditLog : readSegment(file)) {
+                unique.put(auditLog.getId(), auditLog);
+            }
+            List<AuditLog> records = new ArrayList<>(unique.values());
+            for (int from = 0; from < records.size(); from += batchSize) {
+                sink.accept(new ArrayList<>(records.subList(from, Math.min(from + batchSize, records.size()))));
+            }
+
+            Files.deleteIfExists(file);
+            sealed.remove(segment.getKey());
+            backlog.addAndGet(-segment.getValue());
+            replayed += segment.getValue();
+        }
+        return replayed;
+    }
+
+    private List<AuditLog> readSegment(Path file) throws IOException {
+        List<AuditLog> auditLogs = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    // End of the written part of the segment
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    corruptCounter.increment();
+                    logger.warn("Skipping corrupt audit log in spool segment {}", file.getFileName());
+                    continue;
+                }
+                auditLogs.add(objectMapper.readValue(payload, AuditLog.class));
+            }
+        }
+        return auditLogs;
+    }
+
+    private long countRecords(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            long records = 0;
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int length = buffer.getInt();
+                buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                buffer.position(buffer.position() + length);
+                records++;
+            }
+            return records;
+        }
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%020d", sequence) + SEGMENT_SUFFIX);
+    }
+
+    private static Long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        closeActive();
+    }
+
+    // Exposes its backing array so records can be copied into the segment without another copy
+    private static final class PayloadBuffer extends ByteArrayOutputStream {
+        PayloadBuffer() {
+            super(4096);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+}
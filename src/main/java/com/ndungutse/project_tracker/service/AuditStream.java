@@ -0,0 +1,262 @@
+package com.ndungutse.project_tracker.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.ndungutse.project_tracker.dto.AuditLogCursor;
+import com.ndungutse.project_tracker.dto.AuditLogDTO;
+import com.ndungutse.project_tracker.dto.AuditLogFilter;
+import com.ndungutse.project_tracker.model.AuditLog;
+import com.ndungutse.project_tracker.repository.AuditLogRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes audit logs to Server-Sent Events subscribers as soon as the audit
+ * writer has stored them. Publishing only offers each record to the bounded
+ * queue of every matching subscriber; a small sender pool does the network
+ * writes. A subscriber whose queue is full has fallen too far behind and is
+ * disconnected, and can reconnect with the id of the last event it received.
+ */
+@Component
+public class AuditStream {
+    private static final Logger logger = LoggerFactory.getLogger(AuditStream.class);
+
+    private final AuditLogRepository auditLogRepository;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final int maxReplay;
+    private final long timeoutMs;
+    private final ExecutorService senders;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Counter droppedCounter;
+
+    public AuditStream(
+            AuditLogRepository auditLogRepository,
+            MeterRegistry meterRegistry,
+            @Value("${audit.stream.buffer-size:1000}") int bufferSize,
+            @Value("${audit.stream.max-subscribers:100}") int maxSubscribers,
+            @Value("${audit.stream.max-replay:1000}") int maxReplay,
+            @Value("${audit.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${audit.stream.sender-threads:4}") int senderThreads) {
+        this.auditLogRepository = auditLogRepository;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.maxReplay = maxReplay;
+        this.timeoutMs = timeoutMs;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "audit-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("audit.stream.subscribers", subscribers, List::size)
+                .description("Number of connected audit stream subscribers")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.stream.dropped")
+                .description("Number of audit stream subscribers disconnected for falling behind")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream of audit logs matching the filter. With a cursor, the
+     * logs stored after it are sent first; if there are more than
+     * audit.stream.max-replay of them a "reset" event is sent instead and the
+     * client should re-sync through GET /api/v1/logs.
+     */
+    public SseEmitter subscribe(AuditLogFilter filter, AuditLogCursor since) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many audit stream subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(filter, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        // Registered before the replay query so nothing stored in between is missed
+        subscribers.add(subscriber);
+        if (since != null) {
+            subscriber.replaying().set(true);
+            senders.execute(() -> replay(subscriber, since));
+        }
+        return emitter;
+    }
+
+    /**
+     * Offer stored audit logs to the matching subscribers. Called by the audit
+     * writer after each successful batch, so it must never block.
+     */
+    public void publish(List<AuditLog> auditLogs) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            boolean added = false;
+            for (AuditLog auditLog : auditLogs) {
+                if (!matches(subscriber.filter(), auditLog)) {
+                    continue;
+                }
+                if (!subscriber.queue().offer(auditLog)) {
+                    disconnect(subscriber);
+                    break;
+                }
+                added = true;
+            }
+            if (added) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void replay(Subscriber subscriber, AuditLogCursor since) {
+        try {
+            AuditLogFilter replayFilter = AuditLogFilter.builder()
+                    .entityType(subscriber.filter().getEntityType())
+                    .entityId(subscriber.filter().getEntityId())
+                    .username(subscriber.filter().getUsername())
+                    .changedField(subscriber.filter().getChangedField())
+                    .from(since.timestamp())
+                    .build();
+
+            // Newest first, so keep only what is strictly after the cursor and send it oldest first
+            List<AuditLog> missed = new ArrayList<>();
+            for (AuditLog auditLog : auditLogRepository.findPage(replayFilter, null, maxReplay + 1)) {
+                if (isAfter(auditLog, since)) {
+                    missed.add(auditLog);
+                }
+            }
+
+            if (missed.size() > maxReplay) {
+                subscriber.emitter().send(SseEmitter.event().name("reset").data("Too many missed audit logs"));
+            } else {
+                Collections.reverse(missed);
+                for (AuditLog auditLog : missed) {
+                    send(subscriber, auditLog);
+                    subscriber.replayed().add(auditLog.getId());
+                }
+            }
+        } catch (Exception e) {
+            subscriber.emitter().completeWithError(e);
+            subscribers.remove(subscriber);
+            return;
+        }
+
+        subscriber.replaying().set(false);
+        schedule(subscriber);
+    }
+
+    // Drain the subscriber's queue on the sender pool, one drain at a time per subscriber
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.replaying().get() || !subscriber.draining().compareAndSet(false, true)) {
+            return;
+        }
+        senders.execute(() -> {
+            try {
+                AuditLog auditLog;
+                while ((auditLog = subscriber.queue().poll()) != null) {
+                    // Already sent by the replay
+                    if (!subscriber.replayed().isEmpty() && subscriber.replayed().remove(auditLog.getId())) {
+                        continue;
+                    }
+                    send(subscriber, auditLog);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away
+                subscribers.remove(subscriber);
+            } finally {
+                subscriber.draining().set(false);
+            }
+            // Records offered while we were finishing
+            if (!subscriber.queue().isEmpty() && subscribers.contains(subscriber)) {
+                schedule(subscriber);
+            }
+        });
+    }
+
+    private void send(Subscriber subscriber, AuditLog auditLog) throws IOException {
+        subscriber.emitter().send(SseEmitter.event()
+                .id(AuditLogCursor.of(auditLog).encode())
+                .name("audit")
+                .data(AuditLogDTO.fromEntity(auditLog)));
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            droppedCounter.increment();
+            logger.warn("Disconnecting audit stream subscriber that fell {} events behind", bufferSize);
+            senders.execute(() -> subscriber.emitter().completeWithError(
+                    new IllegalStateException("Audit stream subscriber fell too far behind")));
+        }
+    }
+
+    // Comment lines keep proxies from closing idle connections and detect clients that went away
+    @Scheduled(fixedDelayString = "${audit.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            senders.execute(() -> {
+                try {
+                    subscriber.emitter().send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    subscribers.remove(subscriber);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter().complete();
+        }
+        subscribers.clear();
+        senders.shutdown();
+    }
+
+    private static boolean isAfter(AuditLog auditLog, AuditLogCursor cursor) {
+        int byTime = auditLog.getTimestamp().compareTo(cursor.timestamp());
+        return byTime > 0 || (byTime == 0 && AuditLogCursor.of(auditLog).id().compareTo(cursor.id()) > 0);
+    }
+
+    private static boolean matches(AuditLogFilter filter, AuditLog auditLog) {
+        return (filter.getEntityType() == null || filter.getEntityType().equals(auditLog.getEntityType()))
+                && (filter.getEntityId() == null || filter.getEntityId().equals(auditLog.getEntityId()))
+                && (filter.getUsername() == null || filter.getUsername().equals(auditLog.getUsername()))
+                && (filter.getChangedField() == null || (auditLog.getChangedFields() != null
+                        && auditLog.getChangedFields().contains(filter.getChangedField())));
+    }
+
+    private record Subscriber(AuditLogFilter filter, SseEmitter emitter, BlockingQueue<AuditLog> queue,
+            Set<String> replayed, AtomicBoolean replaying, AtomicBoolean draining) {
+
+        Subscriber(AuditLogFilter filter, SseEmitter emitter, BlockingQueue<AuditLog> queue) {
+            this(filter, emitter, queue, Collections.synchronizedSet(new HashSet<>()), new AtomicBoolean(),
+                    new AtomicBoolean());
+        }
+    }
+}
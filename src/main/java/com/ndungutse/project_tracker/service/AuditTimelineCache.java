@@ -0,0 +1,120 @@
+package com.ndungutse.project_tracker.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ndungutse.project_tracker.dto.AuditLogDTO;
+import com.ndungutse.project_tracker.dto.CursorPageResponse;
+import com.ndungutse.project_tracker.model.AuditLog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Small in-memory cache of the first timeline page of recently viewed
+ * entities. The audit writer invalidates an entity as soon as a change to it
+ * is stored on this node; the TTL bounds staleness for changes written by
+ * other nodes.
+ */
+@Component
+public class AuditTimelineCache {
+    private final long ttlNanos;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    // Guarded by entries, least recently used entries are evicted
+    private final Map<String, Entry> entries;
+    // Sequence number of the last invalidation of each recently written entity, so a page
+    // read before a write to that entity is not cached after it. Writes to other entities
+    // do not affect it.
+    private final Map<String, Long> invalidatedAt;
+    // Highest sequence number evicted from invalidatedAt, reads older than it are not cached
+    private long evictedUpTo;
+    private long version;
+
+    public AuditTimelineCache(
+            MeterRegistry meterRegistry,
+            @Value("${audit.timeline.cache-size:1000}") int maxEntries,
+            @Value("${audit.timeline.cache-ttl-ms:5000}") long ttlMs) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.invalidatedAt = new LinkedHashMap<>(256, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                if (size() <= maxEntries) {
+                    return false;
+                }
+                evictedUpTo = Math.max(evictedUpTo, eldest.getValue());
+                return true;
+            }
+        };
+        this.hitCounter = Counter.builder("audit.timeline.cache")
+                .description("Audit timeline cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("audit.timeline.cache")
+                .description("Audit timeline cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public CursorPageResponse<AuditLogDTO> get(String entityType, Long entityId, int size) {
+        synchronized (entries) {
+            Entry entry = entries.get(key(entityType, entityId));
+            if (entry != null && entry.size() == size && System.nanoTime() - entry.expiresAt() < 0) {
+                hitCounter.increment();
+                return entry.page();
+            }
+        }
+        missCounter.increment();
+        return null;
+    }
+
+    // Version to pass to put, taken before the page is read
+    public long version() {
+        synchronized (entries) {
+            return version;
+        }
+    }
+
+    public void put(String entityType, Long entityId, int size, CursorPageResponse<AuditLogDTO> page,
+            long readVersion) {
+        String key = key(entityType, entityId);
+        synchronized (entries) {
+            Long invalidated = invalidatedAt.get(key);
+            if (readVersion >= evictedUpTo && (invalidated == null || invalidated <= readVersion)) {
+                entries.put(key, new Entry(size, page, System.nanoTime() + ttlNanos));
+            }
+        }
+    }
+
+    public void invalidate(List<AuditLog> auditLogs) {
+        synchronized (entries) {
+            version++;
+            for (AuditLog auditLog : auditLogs) {
+                String key = key(auditLog.getEntityType(), auditLog.getEntityId());
+                entries.remove(key);
+                // Re-inserted so the map stays in invalidation order for eviction
+                invalidatedAt.remove(key);
+                invalidatedAt.put(key, version);
+            }
+        }
+    }
+
+    private static String key(String entityType, Long entityId) {
+        return entityType + ":" + entityId;
+    }
+
+    private record Entry(int size, CursorPageResponse<AuditLogDTO> page, long expiresAt) {
+    }
+}
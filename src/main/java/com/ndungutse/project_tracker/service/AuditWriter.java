@@ -0,0 +1,360 @@
+package com.ndungutse.project_tracker.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.ndungutse.project_tracker.model.AuditLog;
+import com.ndungutse.project_tracker.repository.AuditLogRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Background writer for audit logs. Request threads only put captured events
+ * on a bounded queue; a single writer thread drains it, serializes the
+ * snapshots and inserts the records into their monthly MongoDB buckets in
+ * batches, flushing when a batch is full or when the flush interval has
+ * passed, whichever comes first. Events are queued before the writer starts
+ * and while it drains at shutdown; only events that find the queue full (with
+ * the SPILL policy) or arrive after the writer has stopped are spooled raw,
+ * and the writer encodes them when it replays the spool.
+ */
+@Component
+public class AuditWriter implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(AuditWriter.class);
+
+    /**
+     * What to do with an event when the queue is full.
+     */
+    public enum OverflowPolicy {
+        // Wait for room on the queue, back-pressuring the request thread
+        BLOCK,
+        // Drop the record and count it
+        DROP,
+        // Append the record to the local AuditSpool, replayed when MongoDB is reachable again
+        SPILL
+    }
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditSpool spool;
+    private final AuditSnapshotEncoder snapshotEncoder;
+    private final AuditStream auditStream;
+    private final AuditTimelineCache timelineCache;
+    private final BlockingQueue<AuditEvent> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long shutdownTimeoutMs;
+    private final OverflowPolicy overflowPolicy;
+    private final long replayRetryNanos;
+
+    private final Counter droppedCounter;
+    private final Counter spilledCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    private volatile boolean running;
+    // Set once the writer thread has finished, nothing takes from the queue after that
+    private volatile boolean stopped;
+    private Thread writerThread;
+    // Writer thread only
+    private long nextReplayAttempt;
+
+    public AuditWriter(
+            AuditLogRepository auditLogRepository,
+            AuditSpool spool,
+            AuditSnapshotEncoder snapshotEncoder,
+            AuditStream auditStream,
+            AuditTimelineCache timelineCache,
+            MeterRegistry meterRegistry,
+            @Value("${audit.writer.queue-capacity:8192}") int queueCapacity,
+            @Value("${audit.writer.batch-size:500}") int batchSize,
+            @Value("${audit.writer.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${audit.writer.shutdown-timeout-ms:30000}") long shutdownTimeoutMs,
+            @Value("${audit.writer.overflow-policy:SPILL}") OverflowPolicy overflowPolicy,
+            @Value("${audit.spool.replay-retry-ms:5000}") long replayRetryMs) {
+        this.auditLogRepository = auditLogRepository;
+        this.spool = spool;
+        this.snapshotEncoder = snapshotEncoder;
+        this.auditStream = auditStream;
+        this.timelineCache = timelineCache;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.overflowPolicy = overflowPolicy;
+        this.replayRetryNanos = TimeUnit.MILLISECONDS.toNanos(replayRetryMs);
+        this.nextReplayAttempt = System.nanoTime();
+
+        Gauge.builder("audit.writer.queue.depth", queue, BlockingQueue::size)
+                .description("Number of audit logs waiting to be written")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.writer.dropped")
+                .description("Number of audit logs dropped because the queue was full")
+                .register(meterRegistry);
+        this.spilledCounter = Counter.builder("audit.writer.spilled")
+                .description("Number of audit logs spilled to the local spool")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.writer.failed")
+                .description("Number of audit logs that could not be written")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("audit.writer.batch")
+                .description("Time taken to insert one batch of audit logs")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hand an audit event over to the writer. The calling thread never encodes
+     * snapshots or touches MongoDB; when the event cannot be queued it at most
+     * serializes the raw event to the local spool.
+     */
+    public void submit(AuditEvent event) {
+        if (!stopped && queue.offer(event)) {
+            if (stopped) {
+                // The writer finished while we were queueing, do not leave the event behind
+                rescueQueued();
+            }
+            return;
+        }
+        if (stopped) {
+            overflow(List.of(event));
+            return;
+        }
+
+        if (overflowPolicy == OverflowPolicy.BLOCK && running) {
+            try {
+                // The writer keeps draining until the queue is empty, so room appears even during shutdown
+                queue.put(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedCounter.increment();
+            }
+            return;
+        }
+        overflow(List.of(event));
+    }
+
+    // Events that cannot go on the queue, or can no longer be taken from it
+    private void overflow(List<AuditEvent> events) {
+        if (overflowPolicy != OverflowPolicy.SPILL) {
+            droppedCounter.increment(events.size());
+            return;
+        }
+        try {
+            spool.appendEvents(events);
+            spilledCounter.increment(events.size());
+        } catch (IOException | IllegalArgumentException e) {
+            // Never encoded, so the encoder has nothing to forget
+            logger.error("Failed to spool {} audit events: {}", events.size(), e.getMessage());
+            failedCounter.increment(events.size());
+        }
+    }
+
+    private void rescueQueued() {
+        List<AuditEvent> left = new ArrayList<>();
+        queue.drainTo(left);
+        if (!left.isEmpty()) {
+            overflow(left);
+        }
+    }
+
+    private void runWriter() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEvent first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    // Idle, use the time to catch up on spooled records
+                    replaySpool();
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    AuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                writeBatch(encode(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!batch.isEmpty()) {
+                    writeBatch(encode(batch));
+                }
+                break;
+            } catch (Exception e) {
+                logger.error("Audit writer loop failed: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // Whatever is left after an interrupt still gets written
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            writeBatch(encode(batch));
+        }
+    }
+
+    // Serialize the captured state of each event, skipping events that cannot be serialized
+    private List<AuditLog> encode(List<AuditEvent> events) {
+        List<AuditLog> auditLogs = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            try {
+                auditLogs.add(snapshotEncoder.toAuditLog(event));
+            } catch (IllegalArgumentException e) {
+                logger.error("Failed to serialize audit event for {} {}: {}", event.entityType(), event.entityId(),
+                        e.getMessage());
+                failedCounter.increment();
+            }
+        }
+        return auditLogs;
+    }
+
+    private void writeBatch(List<AuditLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            auditLogRepository.insertBucketed(batch);
+            timelineCache.invalidate(batch);
+            auditStream.publish(batch);
+        } catch (Exception e) {
+            logger.error("Failed to write {} audit logs: {}", batch.size(), e.getMessage());
+            if (overflowPolicy == OverflowPolicy.SPILL) {
+                spill(batch);
+            } else {
+                failed(batch);
+            }
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void spill(List<AuditLog> auditLogs) {
+        try {
+            spool.append(auditLogs);
+            spilledCounter.increment(auditLogs.size());
+        } catch (IOException e) {
+            logger.error("Failed to spool {} audit logs: {}", auditLogs.size(), e.getMessage());
+            failed(auditLogs);
+        }
+    }
+
+    // Lost for good, so later updates of these entities must not be patches against them
+    private void failed(List<AuditLog> auditLogs) {
+        failedCounter.increment(auditLogs.size());
+        snapshotEncoder.forget(auditLogs);
+    }
+
+    private void replaySpool() {
+        if (spool.backlog() == 0 || System.nanoTime() - nextReplayAttempt < 0) {
+            return;
+        }
+        try {
+            spool.seal();
+            long replayed = spool.replay(batchSize, spooled -> {
+                List<AuditLog> batch = fromSpooled(spooled);
+                try {
+                    auditLogRepository.insertBucketed(batch);
+                } catch (RuntimeException e) {
+                    // The segment is replayed again, its events must not become patches against themselves
+                    snapshotEncoder.forget(batch);
+                    throw e;
+                }
+                timelineCache.invalidate(batch);
+                auditStream.publish(batch);
+            });
+            if (replayed > 0) {
+                logger.info("Replayed {} spooled audit logs", replayed);
+            }
+        } catch (Exception e) {
+            // Keep the segment and back off, MongoDB is probably still unavailable
+            nextReplayAttempt = System.nanoTime() + replayRetryNanos;
+            logger.warn("Failed to replay spooled audit logs: {}", e.getMessage());
+        }
+    }
+
+    // Encode the raw events the request threads spooled, in spool order
+    private List<AuditLog> fromSpooled(List<AuditLog> spooled) {
+        List<AuditLog> auditLogs = new ArrayList<>(spooled.size());
+        for (AuditLog auditLog : spooled) {
+            if (!AuditLog.ENCODING_PENDING.equals(auditLog.getEncoding())) {
+                auditLogs.add(auditLog);
+                continue;
+            }
+            try {
+                auditLogs.add(snapshotEncoder.fromSpooled(auditLog));
+            } catch (IllegalArgumentException e) {
+                logger.error("Skipping spooled audit event {}: {}", auditLog.getId(), e.getMessage());
+                failedCounter.increment();
+            }
+        }
+        return auditLogs;
+    }
+
+    @Override
+    public void start() {
+        stopped = false;
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        // Drain what is queued; events submitted meanwhile are still queued and drained
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            writerThread.join(shutdownTimeoutMs);
+            if (writerThread.isAlive()) {
+                logger.warn("Audit writer did not drain within {} ms, {} audit logs pending",
+                        shutdownTimeoutMs, queue.size());
+                writerThread.interrupt();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped = true;
+            // Spool (or count) what the writer left, or what was queued after its last drain
+            rescueQueued();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Start before and stop after the web server so in-flight requests can still audit
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,34 @@
+package com.ndungutse.project_tracker.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Records an audit log when the annotated service method returns normally.
+ * Nothing is recorded when it throws or returns an empty Optional. The
+ * expressions are SpEL, with the method arguments available by name and the
+ * return value (unwrapped from Optional) as #result.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Audited {
+    enum Action {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    String entityType();
+
+    Action action();
+
+    // Id of the changed entity, e.g. "#id" or "#result.id"
+    String id();
+
+    // State to record, the return value by default
+    String data() default "#result";
+}
@@ -14,25 +14,27 @@ import com.ndungutse.project_tracker.dto.LoginResponse;
 import com.ndungutse.project_tracker.dto.RegisterRequest;
 import com.ndungutse.project_tracker.model.Role;
 import com.ndungutse.project_tracker.model.User;
-import com.ndungutse.project_tracker.repository.RoleRepository;
 import com.ndungutse.project_tracker.repository.UserRepository;
 import com.ndungutse.project_tracker.security.CustomUserDetails;
 import com.ndungutse.project_tracker.security.JwtUtils;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
+@Timed("service.method")
 public class AuthService {
         private final AuthenticationManager authenticationManager;
         private final JwtUtils jwtUtils;
         private final UserRepository userRepository;
-        private final RoleRepository roleRepository;
+        private final RoleRegistry roleRegistry;
         private final PasswordEncoder passwordEncoder;
 
         public AuthService(AuthenticationManager authenticationManager, JwtUtils jwtUtils,
-                        UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+                        UserRepository userRepository, RoleRegistry roleRegistry, PasswordEncoder passwordEncoder) {
                 this.authenticationManager = authenticationManager;
                 this.jwtUtils = jwtUtils;
                 this.userRepository = userRepository;
-                this.roleRepository = roleRepository;
+                this.roleRegistry = roleRegistry;
                 this.passwordEncoder = passwordEncoder;
         }
 
@@ -59,7 +61,10 @@ public class AuthService {
                                 .build();
         }
 
+        // The response carries the JWT, so only the user fields are recorded
         @Transactional
+        @Audited(entityType = "User", action = Audited.Action.CREATE, id = "#result.userId",
+                        data = "{id: #result.userId, username: #result.username, email: #result.email, role: #result.role}")
         public LoginResponse register(RegisterRequest registerRequest) {
                 // Check if email already exists
                 if (userRepository.existsByEmail(registerRequest.getEmail())) {
@@ -79,8 +84,10 @@ public class AuthService {
                 String username = baseUsername + "_" + suffix;
 
                 // Get CONTRACTOR role
-                Role contractorRole = roleRepository.findByRoleName("CONTRACTOR")
-                                .orElseThrow(() -> new IllegalArgumentException("CONTRACTOR role not found"));
+                Role contractorRole = roleRegistry.getByName("CONTRACTOR");
+                if (contractorRole == null) {
+                        throw new IllegalArgumentException("CONTRACTOR role not found");
+                }
 
                 // Create new user
                 User user = new User();
@@ -0,0 +1,145 @@
+package com.ndungutse.project_tracker.service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BinaryNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Converts audit snapshots between Jackson trees and BSON values by walking
+ * the tree, so snapshots are stored as embedded documents without going
+ * through JSON text.
+ */
+public final class BsonSnapshots {
+    private static final JsonNodeFactory nodes = JsonNodeFactory.instance;
+
+    private BsonSnapshots() {
+    }
+
+    // Null for a null state, otherwise the state must be a JSON object
+    public static Document toDocument(JsonNode state) {
+        if (state == null || state.isNull() || state.isMissingNode()) {
+            return null;
+        }
+        if (!state.isObject()) {
+            throw new IllegalArgumentException("Audit snapshots must be JSON objects");
+        }
+        return objectToDocument(state);
+    }
+
+    // A JSON Patch as a list of operation documents
+    public static List<Document> toDocuments(ArrayNode patch) {
+        List<Document> operations = new ArrayList<>(patch.size());
+        for (JsonNode operation : patch) {
+            operations.add(objectToDocument(operation));
+        }
+        return operations;
+    }
+
+    private static Document objectToDocument(JsonNode node) {
+        Document document = new Document();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            document.put(field.getKey(), toBson(field.getValue()));
+        }
+        return document;
+    }
+
+    private static Object toBson(JsonNode node) {
+        switch (node.getNodeType()) {
+            case OBJECT:
+                return objectToDocument(node);
+            case ARRAY:
+                List<Object> values = new ArrayList<>(node.size());
+                for (JsonNode element : node) {
+                    values.add(toBson(element));
+                }
+                return values;
+            case STRING:
+                return node.textValue();
+            case BOOLEAN:
+                return node.booleanValue();
+            case NUMBER:
+                if (node.isInt() || node.isShort()) {
+                    return node.intValue();
+                }
+                if (node.isLong()) {
+                    return node.longValue();
+                }
+                if (node.isBigInteger() || node.isBigDecimal()) {
+                    return node.decimalValue();
+                }
+                return node.doubleValue();
+            case BINARY:
+                return ((BinaryNode) node).binaryValue();
+            default:
+                return null;
+        }
+    }
+
+    // Back to a Jackson tree, for diffing and for rebuilding snapshots
+    public static JsonNode toJson(Object value) {
+        if (value == null) {
+            return nodes.nullNode();
+        }
+        if (value instanceof Map<?, ?> map) {
+            ObjectNode object = nodes.objectNode();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                object.set(String.valueOf(entry.getKey()), toJson(entry.getValue()));
+            }
+            return object;
+        }
+        if (value instanceof List<?> list) {
+            ArrayNode array = nodes.arrayNode(list.size());
+            for (Object element : list) {
+                array.add(toJson(element));
+            }
+            return array;
+        }
+        if (value instanceof String text) {
+            return nodes.textNode(text);
+        }
+        if (value instanceof Boolean bool) {
+            return nodes.booleanNode(bool);
+        }
+        if (value instanceof Integer number) {
+            return nodes.numberNode(number);
+        }
+        if (value instanceof Long number) {
+            return nodes.numberNode(number);
+        }
+        if (value instanceof Double number) {
+            return nodes.numberNode(number);
+        }
+        if (value instanceof Decimal128 number) {
+            return nodes.numberNode(number.bigDecimalValue());
+        }
+        if (value instanceof BigDecimal number) {
+            return nodes.numberNode(number);
+        }
+        if (value instanceof BigInteger number) {
+            return nodes.numberNode(number);
+        }
+        if (value instanceof byte[] bytes) {
+            return nodes.binaryNode(bytes);
+        }
+        if (value instanceof ObjectId || value instanceof Date) {
+            return nodes.textNode(value.toString());
+        }
+        return nodes.pojoNode(value);
+    }
+}
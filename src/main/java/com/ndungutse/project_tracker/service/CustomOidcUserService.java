@@ -1,58 +1,74 @@
 package com.ndungutse.project_tracker.service;
 
-import java.util.Optional;
-
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.ndungutse.project_tracker.dto.projection.ProvisionedUserDto;
 import com.ndungutse.project_tracker.model.Role;
 import com.ndungutse.project_tracker.model.User;
-import com.ndungutse.project_tracker.repository.RoleRepository;
 import com.ndungutse.project_tracker.repository.UserRepository;
+import com.ndungutse.project_tracker.security.CustomOidcUser;
 
 @Service
 public class CustomOidcUserService extends OidcUserService {
 
-    @Autowired
-    private UserRepository userRepository;
+    private final UserRepository userRepository;
+    private final RoleRegistry roleRegistry;
+    private final TransactionTemplate transactionTemplate;
 
-    @Autowired
-    private RoleRepository roleRepository;
+    public CustomOidcUserService(UserRepository userRepository, RoleRegistry roleRegistry,
+            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.roleRegistry = roleRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     @Override
     public OidcUser loadUser(OidcUserRequest userRequest) throws OAuth2AuthenticationException {
-        // Call the default OidcUserService to load the user's information
+        // Call the default OidcUserService to load the user's information. This is a call to the
+        // provider's userinfo endpoint, so it runs before any connection is taken from the pool.
         OidcUser oidcUser = super.loadUser(userRequest);
 
         try {
             // Get user information from claims
             String email = oidcUser.getEmail();
             String name = oidcUser.getFullName();
-            // Check if user exists in database
-            Optional<User> existingUser = userRepository.findByEmail(email);
-
-            if (existingUser.isEmpty()) {
-                // Create new user with Contractor role
-                User newUser = new User();
-                newUser.setEmail(email);
-                newUser.setFullName(name);
-                newUser.setPassword("Test@12345");
-                newUser.setUsername(email);
-
-                // Get Contractor role
-                Role contractorRole = roleRepository.findByRoleName("CONTRACTOR")
-                        .orElseThrow(() -> new RuntimeException("Contractor role not found"));
-
-                newUser.setRole(contractorRole);
-                userRepository.save(newUser);
+
+            // New users get the Contractor role
+            Role contractorRole = roleRegistry.findByName("CONTRACTOR")
+                    .orElseThrow(() -> new RuntimeException("Contractor role not found"));
+
+            // Create the user or fetch the existing one in a single statement, the only
+            // part of the login that holds a connection
+            ProvisionedUserDto provisioned = transactionTemplate.execute(status -> {
+                ProvisionedUserDto row = userRepository.upsertByEmail(
+                        email, email, "Test@12345", name, contractorRole.getId());
+                if (row == null) {
+                    // Lost a race with a concurrent first login, the row is visible to a new statement
+                    row = userRepository.upsertByEmail(email, email, "Test@12345", name, contractorRole.getId());
+                }
+                return row;
+            });
+
+            Role role = roleRegistry.getById(provisioned.getRoleId());
+            if (role == null) {
+                throw new RuntimeException("Role not found");
             }
 
-            return oidcUser;
+            User user = User.builder()
+                    .id(provisioned.getId())
+                    .username(provisioned.getUsername())
+                    .email(provisioned.getEmail())
+                    .role(role)
+                    .build();
+
+            return new CustomOidcUser(oidcUser, user);
         } catch (Exception ex) {
             // Handle any exceptions during custom processing
             throw new InternalAuthenticationServiceException(ex.getMessage(), ex);
@@ -0,0 +1,163 @@
+package com.ndungutse.project_tracker.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Minimal RFC 6902 JSON Patch support for audit snapshots. Diffs produce only
+ * add, remove and replace operations; objects are diffed field by field and
+ * any other changed value (including arrays) is replaced as a whole.
+ */
+public final class JsonPatch {
+    private static final JsonNodeFactory nodes = JsonNodeFactory.instance;
+
+    private JsonPatch() {
+    }
+
+    // Operations that turn source into target
+    public static ArrayNode diff(JsonNode source, JsonNode target) {
+        ArrayNode patch = nodes.arrayNode();
+        diff("", source, target, patch);
+        return patch;
+    }
+
+    private static void diff(String path, JsonNode source, JsonNode target, ArrayNode patch) {
+        if (source.equals(target)) {
+            return;
+        }
+
+        if (!source.isObject() || !target.isObject()) {
+            patch.add(operation("replace", path, target.deepCopy()));
+            return;
+        }
+
+        Iterator<String> sourceFields = source.fieldNames();
+        while (sourceFields.hasNext()) {
+            String field = sourceFields.next();
+            if (!target.has(field)) {
+                patch.add(operation("remove", path + "/" + escape(field), null));
+            }
+        }
+
+        Iterator<Map.Entry<String, JsonNode>> targetFields = target.fields();
+        while (targetFields.hasNext()) {
+            Map.Entry<String, JsonNode> field = targetFields.next();
+            String fieldPath = path + "/" + escape(field.getKey());
+            JsonNode sourceValue = source.get(field.getKey());
+            if (sourceValue == null) {
+                patch.add(operation("add", fieldPath, field.getValue().deepCopy()));
+            } else {
+                diff(fieldPath, sourceValue, field.getValue(), patch);
+            }
+        }
+    }
+
+    // Distinct top-level fields touched by a patch, in order
+    public static List<String> changedFields(JsonNode patch) {
+        Set<String> fields = new LinkedHashSet<>();
+        for (JsonNode operation : patch) {
+            List<String> path = parsePath(operation.path("path").asText());
+            if (!path.isEmpty()) {
+                fields.add(path.get(0));
+            }
+        }
+        return new ArrayList<>(fields);
+    }
+
+    // Apply a patch to a copy of the document and return the result
+    public static JsonNode apply(JsonNode document, JsonNode patch) {
+        JsonNode result = document.deepCopy();
+        for (JsonNode operation : patch) {
+            String op = operation.path("op").asText();
+            List<String> path = parsePath(operation.path("path").asText());
+            JsonNode value = operation.get("value");
+
+            if (path.isEmpty()) {
+                if (!op.equals("remove")) {
+                    result = value.deepCopy();
+                }
+                continue;
+            }
+
+            JsonNode parent = result;
+            for (int i = 0; i < path.size() - 1; i++) {
+                parent = child(parent, path.get(i));
+            }
+            String last = path.get(path.size() - 1);
+
+            switch (op) {
+                case "add", "replace" -> set(parent, last, value.deepCopy(), op.equals("add"));
+                case "remove" -> remove(parent, last);
+                default -> throw new IllegalArgumentException("Unsupported JSON Patch operation: " + op);
+            }
+        }
+        return result;
+    }
+
+    private static JsonNode child(JsonNode node, String token) {
+        JsonNode child = node.isArray() ? node.get(Integer.parseInt(token)) : node.get(token);
+        if (child == null) {
+            throw new IllegalArgumentException("JSON Patch path does not exist: " + token);
+        }
+        return child;
+    }
+
+    private static void set(JsonNode parent, String token, JsonNode value, boolean insert) {
+        if (parent instanceof ObjectNode object) {
+            object.set(token, value);
+        } else if (parent instanceof ArrayNode array) {
+            if (token.equals("-")) {
+                array.add(value);
+            } else if (insert) {
+                array.insert(Integer.parseInt(token), value);
+            } else {
+                array.set(Integer.parseInt(token), value);
+            }
+        } else {
+            throw new IllegalArgumentException("JSON Patch target is not a container: " + token);
+        }
+    }
+
+    private static void remove(JsonNode parent, String token) {
+        if (parent instanceof ObjectNode object) {
+            object.remove(token);
+        } else if (parent instanceof ArrayNode array) {
+            array.remove(Integer.parseInt(token));
+        }
+    }
+
+    private static ObjectNode operation(String op, String path, JsonNode value) {
+        ObjectNode operation = nodes.objectNode();
+        operation.put("op", op);
+        operation.put("path", path);
+        if (value != null) {
+            operation.set("value", value);
+        }
+        return operation;
+    }
+
+    // JSON Pointer escaping (RFC 6901)
+    private static String escape(String token) {
+        return token.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static List<String> parsePath(String pointer) {
+        List<String> tokens = new ArrayList<>();
+        if (pointer.isEmpty()) {
+            return tokens;
+        }
+        for (String token : pointer.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+}
@@ -17,33 +17,29 @@ import com.ndungutse.project_tracker.exception.ResourceNotFoundException;
 import com.ndungutse.project_tracker.model.Project;
 import com.ndungutse.project_tracker.repository.ProjectRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 import jakarta.transaction.Transactional;
 
 @Service
+@Timed("service.method")
 public class ProjectService {
     private final ProjectRepository projectRepository;
-    private final AuditService auditService;
     ProjectMapper projectMapper;
 
     public ProjectService(
             ProjectRepository projectRepository,
-            AuditService auditService,
             ProjectMapper projectMapper) {
         this.projectRepository = projectRepository;
-        this.auditService = auditService;
         this.projectMapper = projectMapper;
     }
 
     // Create
+    @Audited(entityType = "Project", action = Audited.Action.CREATE, id = "#result.id")
     public ProjectDTO create(ProjectDTO projectDTO) {
         Project project = projectMapper.toEntity(projectDTO);
         Project savedProject = projectRepository.save(project);
-        ProjectDTO savedProjectDTO = projectMapper.toDto(savedProject);
-
-        // Log the create action
-        auditService.logCreateAction("Project", savedProject.getId(), "dummy_user", savedProjectDTO);
-
-        return savedProjectDTO;
+        return projectMapper.toDto(savedProject);
     }
 
     // Read
@@ -72,6 +68,7 @@ public class ProjectService {
 
     @Transactional
     @CachePut(value = "projectById", key = "#id")
+    @Audited(entityType = "Project", action = Audited.Action.UPDATE, id = "#id")
     public ProjectDTO update(
             Long id,
             ProjectDTO updatedProjectDTO) {
@@ -94,12 +91,7 @@ public class ProjectService {
         // Status is a primitive boolean, so we always update it
         existingProject.setStatus(updatedProjectDTO.isStatus());
 
-        ProjectDTO updatedDTO = projectMapper.toDto(existingProject);
-
-        // Log the update action
-        auditService.logUpdateAction("Project", id, "dummy_user", updatedDTO);
-
-        return updatedDTO;
+        return projectMapper.toDto(existingProject);
     }
 
     // project only id, name, and status
@@ -111,6 +103,7 @@ public class ProjectService {
 
     // Delete
     @CacheEvict(value = "projectById", key = "#id")
+    @Audited(entityType = "Project", action = Audited.Action.DELETE, id = "#id")
     public void delete(Long id) {
         if (!exists(id)) {
             throw new ResourceNotFoundException("Project with ID " + id + " does not exist.");
@@ -0,0 +1,163 @@
+package com.ndungutse.project_tracker.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ndungutse.project_tracker.model.Role;
+import com.ndungutse.project_tracker.repository.RoleRepository;
+
+/**
+ * In-memory copy of the roles table. Roles almost never change, so lookups on
+ * hot paths (login, registration, user management) are served from an
+ * immutable snapshot instead of the database. The snapshot is replaced as a
+ * whole whenever roles change on this node, and other nodes are told to
+ * reload theirs through a Redis channel. It is loaded as soon as the singletons
+ * exist, before any runner or request, and a lookup that misses checks the
+ * database once and reloads, so roles seeded or added since are found.
+ */
+@Component
+public class RoleRegistry implements MessageListener, SmartInitializingSingleton {
+    public static final String CHANNEL = "roles:changed";
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleRegistry.class);
+
+    private final RoleRepository roleRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    // Set for the CDS training run (spring.context.exit=onRefresh), which has no database
+    private final boolean exitOnRefresh;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), List.of());
+
+    public RoleRegistry(
+            RoleRepository roleRepository,
+            StringRedisTemplate redisTemplate,
+            @Value("${spring.context.exit:}") String contextExit) {
+        this.roleRepository = roleRepository;
+        this.redisTemplate = redisTemplate;
+        this.exitOnRefresh = contextExit.equals("onRefresh");
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (exitOnRefresh) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // Lookups fall back to the database until a load succeeds
+            logger.warn("Could not load the role registry, roles are read on first use: {}", e.getMessage());
+        }
+    }
+
+    public void refresh() {
+        List<Role> roles = roleRepository.findAll();
+        Map<String, Role> byName = new HashMap<>();
+        Map<Long, Role> byId = new HashMap<>();
+        List<Role> all = new ArrayList<>(roles.size());
+        for (Role role : roles) {
+            // Keep detached copies without the lazy users collection
+            Role copy = Role.builder()
+                    .id(role.getId())
+                    .roleName(role.getRoleName())
+                    .build();
+            byName.put(copy.getRoleName(), copy);
+            byId.put(copy.getId(), copy);
+            all.add(copy);
+        }
+        snapshot = new Snapshot(Map.copyOf(byName), Map.copyOf(byId), List.copyOf(all));
+        logger.info("Loaded {} roles into the role registry", all.size());
+    }
+
+    /**
+     * Reload the registry once the current transaction commits (or right away
+     * when there is none) and tell the other nodes to do the same.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshAndBroadcast();
+                }
+            });
+        } else {
+            refreshAndBroadcast();
+        }
+    }
+
+    private void refreshAndBroadcast() {
+        refresh();
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId);
+        } catch (Exception e) {
+            // Other nodes catch up on their next restart or role change
+            logger.warn("Could not broadcast role change: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // Ignore our own broadcasts, this node has already reloaded
+        if (!nodeId.equals(new String(message.getBody()))) {
+            refresh();
+        }
+    }
+
+    // Lookups return null when the role does not exist so hot paths do not allocate
+
+    public Role getByName(String roleName) {
+        Role role = snapshot.byName().get(roleName);
+        if (role == null && roleName != null && roleRepository.existsByRoleName(roleName)) {
+            refresh();
+            role = snapshot.byName().get(roleName);
+        }
+        return role;
+    }
+
+    public Role getById(Long id) {
+        Role role = snapshot.byId().get(id);
+        if (role == null && id != null && roleRepository.existsById(id)) {
+            refresh();
+            role = snapshot.byId().get(id);
+        }
+        return role;
+    }
+
+    public Optional<Role> findByName(String roleName) {
+        return Optional.ofNullable(getByName(roleName));
+    }
+
+    public Optional<Role> findById(Long id) {
+        return Optional.ofNullable(getById(id));
+    }
+
+    public List<Role> getAll() {
+        List<Role> all = snapshot.all();
+        // Empty when the load at startup failed (or before the roles are seeded)
+        if (all.isEmpty()) {
+            refresh();
+            all = snapshot.all();
+        }
+        return all;
+    }
+
+    private record Snapshot(Map<String, Role> byName, Map<Long, Role> byId, List<Role> all) {
+    }
+}
@@ -3,6 +3,9 @@ package com.ndungutse.project_tracker.service;
 import com.ndungutse.project_tracker.dto.RoleDTO;
 import com.ndungutse.project_tracker.model.Role;
 import com.ndungutse.project_tracker.repository.RoleRepository;
+
+import io.micrometer.core.annotation.Timed;
+
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
@@ -11,40 +14,43 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.method")
 public class RoleService {
     private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
 
-    public RoleService(RoleRepository roleRepository) {
+    public RoleService(RoleRepository roleRepository, RoleRegistry roleRegistry) {
         this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
     }
 
     // Create
+    @Audited(entityType = "Role", action = Audited.Action.CREATE, id = "#result.id")
     public RoleDTO create(RoleDTO roleDTO) {
         Role role = roleDTO.toEntity();
         Role savedRole = roleRepository.save(role);
+        roleRegistry.refreshAfterCommit();
         return RoleDTO.fromEntity(savedRole);
     }
 
-    // Read
+    // Read (served from the in-memory registry)
     public List<RoleDTO> getAll() {
-        List<Role> roles = roleRepository.findAll();
-        return roles.stream()
+        return roleRegistry.getAll().stream()
                 .map(RoleDTO::fromEntity)
                 .collect(Collectors.toList());
     }
 
     public Optional<RoleDTO> getById(Long id) {
-        Optional<Role> role = roleRepository.findById(id);
-        return role.map(RoleDTO::fromEntity);
+        return roleRegistry.findById(id).map(RoleDTO::fromEntity);
     }
 
     public Optional<RoleDTO> getByName(String roleName) {
-        Optional<Role> role = roleRepository.findByRoleName(roleName);
-        return role.map(RoleDTO::fromEntity);
+        return roleRegistry.findByName(roleName).map(RoleDTO::fromEntity);
     }
 
     // Update
     @Transactional
+    @Audited(entityType = "Role", action = Audited.Action.UPDATE, id = "#id")
     public Optional<RoleDTO> update(Long id, RoleDTO updatedRoleDTO) {
         Optional<Role> existingRole = roleRepository.findById(id);
         if (existingRole.isPresent()) {
@@ -55,21 +61,24 @@ public class RoleService {
             }
 
             Role savedRole = roleRepository.save(role);
+            roleRegistry.refreshAfterCommit();
             return Optional.of(RoleDTO.fromEntity(savedRole));
         }
         return Optional.empty();
     }
 
     // Delete
+    @Audited(entityType = "Role", action = Audited.Action.DELETE, id = "#id")
     public void delete(Long id) {
         roleRepository.deleteById(id);
+        roleRegistry.refreshAfterCommit();
     }
 
     public boolean exists(Long id) {
-        return roleRepository.existsById(id);
+        return roleRegistry.getById(id) != null;
     }
 
     public boolean existsByName(String roleName) {
-        return roleRepository.existsByRoleName(roleName);
+        return roleRegistry.getByName(roleName) != null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,303 @@
+package com.ndungutse.project_tracker.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.LongStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ndungutse.project_tracker.dto.projection.UserSkillsDto;
+import com.ndungutse.project_tracker.repository.UserRepository;
+
+/**
+ * Inverted index from normalized skill to the ids of the users who have it,
+ * kept as one sorted id array per skill, so memory follows the number of
+ * users with a skill rather than the highest id, and AND and OR searches are
+ * merges of sorted arrays. Built from the users table at startup and updated
+ * after every committed user write; other nodes are told which user changed
+ * through a Redis channel and reload just that user.
+ */
+@Component
+public class SkillIndex implements MessageListener {
+    public static final String CHANNEL = "skills:changed";
+
+    private static final Logger logger = LoggerFactory.getLogger(SkillIndex.class);
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock
+    private Map<String, Posting> postings = new HashMap<>();
+    // Guarded by lock. Updates seen while a rebuild is loading, replayed onto the rebuilt
+    // postings before they replace the current ones; an empty Optional is a deleted user.
+    private Map<Long, Optional<String>> updatesDuringRebuild;
+
+    public SkillIndex(UserRepository userRepository, StringRedisTemplate redisTemplate) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            updatesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<String, Posting> rebuilt = new HashMap<>();
+        List<UserSkillsDto> users;
+        try {
+            users = new ArrayList<>(userRepository.findAllSkills());
+            // In id order, so every posting is built by appending
+            users.sort(Comparator.comparing(UserSkillsDto::getId));
+            for (UserSkillsDto user : users) {
+                for (String skill : tokenize(user.getSkills())) {
+                    rebuilt.computeIfAbsent(skill, key -> new Posting()).add(user.getId());
+                }
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                updatesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // The snapshot may predate these, so they go on top of it
+            for (Map.Entry<Long, Optional<String>> update : updatesDuringRebuild.entrySet()) {
+                apply(rebuilt, update.getKey(), tokenize(update.getValue().orElse(null)));
+            }
+            updatesDuringRebuild = null;
+            postings = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed skills of {} users ({} distinct skills)", users.size(), rebuilt.size());
+    }
+
+    /**
+     * Split a comma-separated skills string into normalized tokens, so
+     * " Spring  Boot" and "spring boot" are the same skill.
+     */
+    public static Set<String> tokenize(String skills) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (skills == null) {
+            return tokens;
+        }
+        for (String skill : skills.split(",")) {
+            String token = skill.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Ids of the users having all (or any) of the given skills, in id order.
+     */
+    public List<Long> find(Collection<String> skills, boolean matchAll) {
+        List<long[]> matching = new ArrayList<>(skills.size());
+        lock.readLock().lock();
+        try {
+            for (String skill : skills) {
+                Posting users = postings.get(skill);
+                if (users == null) {
+                    if (matchAll) {
+                        return List.of();
+                    }
+                    continue;
+                }
+                matching.add(users.toArray());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (matching.isEmpty()) {
+            return List.of();
+        }
+        long[] ids = matchAll ? intersect(matching) : union(matching);
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    // Smallest first, so every step is bounded by the smallest posting
+    private static long[] intersect(List<long[]> postings) {
+        postings.sort(Comparator.comparingInt(ids -> ids.length));
+        long[] result = postings.get(0);
+        for (int p = 1; p < postings.size() && result.length > 0; p++) {
+            long[] other = postings.get(p);
+            long[] common = new long[result.length];
+            int size = 0;
+            int j = 0;
+            for (long id : result) {
+                while (j < other.length && other[j] < id) {
+                    j++;
+                }
+                if (j == other.length) {
+                    break;
+                }
+                if (other[j] == id) {
+                    common[size++] = id;
+                }
+            }
+            result = Arrays.copyOf(common, size);
+        }
+        return result;
+    }
+
+    private static long[] union(List<long[]> postings) {
+        if (postings.size() == 1) {
+            return postings.get(0);
+        }
+        long[] all = postings.stream().flatMapToLong(LongStream::of).sorted().toArray();
+        int size = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (size == 0 || all[size - 1] != all[i]) {
+                all[size++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, size);
+    }
+
+    /**
+     * Re-index the user once the current transaction commits (or right away
+     * when there is none) and tell the other nodes to do the same. Pass null
+     * skills for a deleted user.
+     */
+    public void updateAfterCommit(Long userId, String skills) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    updateAndBroadcast(userId, skills);
+                }
+            });
+        } else {
+            updateAndBroadcast(userId, skills);
+        }
+    }
+
+    private void updateAndBroadcast(Long userId, String skills) {
+        update(userId, skills);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + "|" + userId);
+        } catch (Exception e) {
+            // Other nodes catch up on their next restart
+            logger.warn("Could not broadcast skill change of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void update(Long userId, String skills) {
+        Set<String> tokens = tokenize(skills);
+        lock.writeLock().lock();
+        try {
+            apply(postings, userId, tokens);
+            if (updatesDuringRebuild != null) {
+                updatesDuringRebuild.put(userId, Optional.ofNullable(skills));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock or owns the map
+    private static void apply(Map<String, Posting> postings, Long userId, Set<String> tokens) {
+        // There are far fewer skills than users, so removing the id everywhere is cheap
+        Iterator<Map.Entry<String, Posting>> entries = postings.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Posting> entry = entries.next();
+            if (!tokens.contains(entry.getKey())) {
+                entry.getValue().remove(userId);
+                if (entry.getValue().isEmpty()) {
+                    entries.remove();
+                }
+            }
+        }
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, key -> new Posting()).add(userId);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody());
+        int separator = body.indexOf('|');
+        // Ignore our own broadcasts, this node has already updated
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        Long userId = Long.valueOf(body.substring(separator + 1));
+        update(userId, userRepository.findSkillsById(userId).orElse(null));
+    }
+
+    // Sorted ids of the users with one skill, grown as needed
+    private static final class Posting {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.ndungutse.project_tracker.service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import com.ndungutse.project_tracker.dto.TaskDTO;
 import com.ndungutse.project_tracker.dto.TaskSummaryDTO;
 import com.ndungutse.project_tracker.dto.UserDTO;
+import com.ndungutse.project_tracker.dto.WorkloadDTO;
 import com.ndungutse.project_tracker.dto.mapper.ProjectMapper;
 import com.ndungutse.project_tracker.dto.mapper.TaskMapper;
 import com.ndungutse.project_tracker.exception.ResourceNotFoundException;
@@ -16,18 +21,24 @@ import com.ndungutse.project_tracker.model.Project;
 import com.ndungutse.project_tracker.model.Task;
 import com.ndungutse.project_tracker.model.User;
 import com.ndungutse.project_tracker.repository.TaskRepository;
+import com.ndungutse.project_tracker.security.SecurityUtil;
 
+import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 
 @Service
+@Timed("service.method")
 public class TaskService {
+    private static final String DEVELOPER_ROLE = "DEVELOPER";
+
     private final TaskRepository taskRepository;
     private final ProjectService projectService;
     private final UserService userService;
     private final TaskMapper taskMapper;
     private final ProjectMapper projectMapper;
+    private final SecurityUtil securityUtil;
     private final Counter tasksProcessedCounter;
 
     public TaskService(
@@ -36,15 +47,17 @@ public class TaskService {
             UserService userService,
             TaskMapper taskMapper,
             MeterRegistry meterRegistry,
-            ProjectMapper projectMapper) {
+            ProjectMapper projectMapper,
+            SecurityUtil securityUtil) {
         this.taskRepository = taskRepository;
         this.projectService = projectService;
         this.userService = userService;
         this.taskMapper = taskMapper;
         this.projectMapper = projectMapper;
-        // Create a counter named "tasks.processed"
+        this.securityUtil = securityUtil;
+        // Counts task writes (create, update, delete), reads are timed by service.method
         this.tasksProcessedCounter = Counter.builder("tasks.processed")
-                .description("Number of tasks processed")
+                .description("Number of tasks created, updated or deleted")
                 .register(meterRegistry);
     }
 
@@ -55,7 +68,9 @@ public class TaskService {
     }
 
     // Create
+    @CacheEvict(value = "developerWorkload", allEntries = true)
     @Transactional
+    @Audited(entityType = "Task", action = Audited.Action.CREATE, id = "#result.id")
     public Optional<TaskDTO> create(TaskDTO taskDTO) {
         tasksProcessedCounter.increment();
 
@@ -84,7 +99,6 @@ public class TaskService {
 
     // Read
     public List<TaskDTO> getAll() {
-        tasksProcessedCounter.increment();
         return taskMapper.toDtoList(taskRepository.findAll());
     }
 
@@ -121,13 +135,20 @@ public class TaskService {
     }
 
     // Update
+    @CacheEvict(value = "developerWorkload", allEntries = true)
     @Transactional
+    @Audited(entityType = "Task", action = Audited.Action.UPDATE, id = "#id")
     public Optional<TaskDTO> update(
             Long id,
             TaskDTO updatedTaskDTO) {
+        tasksProcessedCounter.increment();
+        securityUtil.validateTaskUpdateRole();
         Task existingTask = taskRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task with ID " + id + " does not exist."));
 
+        // Authorize against the task we just loaded instead of loading it twice
+        securityUtil.validateTaskUpdateAccess(existingTask);
+
         // Update fields that are not null
         if (updatedTaskDTO.getTitle() != null) {
             existingTask.setTitle(updatedTaskDTO.getTitle());
@@ -166,10 +187,13 @@ public class TaskService {
     }
 
     // Delete
+    @CacheEvict(value = "developerWorkload", allEntries = true)
+    @Audited(entityType = "Task", action = Audited.Action.DELETE, id = "#id")
     public void delete(Long id) {
         if (!taskRepository.existsById(id)) {
             throw new ResourceNotFoundException("Task with ID " + id + " does not exist.");
         }
+        tasksProcessedCounter.increment();
         taskRepository.deleteById(id);
     }
 
@@ -177,6 +201,25 @@ public class TaskService {
         return taskRepository.existsById(id);
     }
 
+    // Open, done and overdue task counts per developer, sorted by username or by load (most open tasks first)
+    @Cacheable(value = "developerWorkload", key = "#sort")
+    public List<WorkloadDTO> getDeveloperWorkload(String sort) {
+        Comparator<WorkloadDTO> byUsername = Comparator.comparing(WorkloadDTO::getUsername);
+        Comparator<WorkloadDTO> order = switch (sort) {
+            case "username" -> byUsername;
+            case "load" -> Comparator.comparingLong(WorkloadDTO::getOpenTasks)
+                    .thenComparingLong(WorkloadDTO::getOverdueTasks)
+                    .reversed()
+                    .thenComparing(byUsername);
+            default -> throw new IllegalArgumentException("Unsupported sort: " + sort);
+        };
+
+        List<WorkloadDTO> workload = new ArrayList<>(
+                taskRepository.findWorkloadByRole(DEVELOPER_ROLE, LocalDate.now()));
+        workload.sort(order);
+        return workload;
+    }
+
     // Get overdue tasks
     public List<TaskDTO> getOverdueTasks() {
         return taskMapper.toDtoList(taskRepository.findOverdueTasks(LocalDate.now()));
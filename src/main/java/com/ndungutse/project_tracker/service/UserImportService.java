@@ -0,0 +1,439 @@
+package com.ndungutse.project_tracker.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ndungutse.project_tracker.dto.UserDTO;
+import com.ndungutse.project_tracker.dto.UserImportResult;
+import com.ndungutse.project_tracker.dto.UserImportRow;
+import com.ndungutse.project_tracker.model.Role;
+import com.ndungutse.project_tracker.model.User;
+import com.ndungutse.project_tracker.repository.UserRepository;
+import com.ndungutse.project_tracker.security.SecurityUtil;
+
+import io.micrometer.core.annotation.Timed;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bulk user import. Rows are read from the request one chunk at a time; each
+ * chunk is validated, checked for duplicates with one query per unique
+ * column, has its passwords hashed on a bounded worker pool and is inserted in
+ * its own transaction with JDBC batching; when that fails the chunk is retried
+ * row by row, so only the rows that fail on their own are reported FAILED. A
+ * result line is written for every row as soon as its chunk is done, so
+ * neither side holds the whole file.
+ */
+@Service
+@Timed("service.method")
+public class UserImportService {
+    public static final String CSV = "text/csv";
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private final UserRepository userRepository;
+    private final RoleRegistry roleRegistry;
+    private final SkillIndex skillIndex;
+    private final PasswordEncoder passwordEncoder;
+    private final AuditService auditService;
+    private final SecurityUtil securityUtil;
+    private final ObjectReader rowReader;
+    private final ObjectWriter resultWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ThreadPoolExecutor hashPool;
+
+    public UserImportService(
+            UserRepository userRepository,
+            RoleRegistry roleRegistry,
+            SkillIndex skillIndex,
+            PasswordEncoder passwordEncoder,
+            AuditService auditService,
+            SecurityUtil securityUtil,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${users.import.chunk-size:500}") int chunkSize,
+            @Value("${users.import.hash-threads:0}") int hashThreads) {
+        this.userRepository = userRepository;
+        this.roleRegistry = roleRegistry;
+        this.skillIndex = skillIndex;
+        this.passwordEncoder = passwordEncoder;
+        this.auditService = auditService;
+        this.securityUtil = securityUtil;
+        this.rowReader = objectMapper.readerFor(UserImportRow.class);
+        this.resultWriter = objectMapper.writerFor(UserImportResult.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+
+        // bcrypt is CPU bound, so one thread per core unless configured. When the
+        // queue is full the importing request hashes on its own thread, which
+        // keeps concurrent imports from queueing without bound.
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(chunkSize), runnable -> {
+                    Thread thread = new Thread(runnable, "user-import-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Import the users of a CSV (with a header row) or NDJSON stream and write
+     * one NDJSON result per row to out.
+     */
+    @CacheEvict(value = "developerWorkload", allEntries = true)
+    public void importUsers(InputStream in, String contentType, OutputStream out) throws IOException {
+        boolean csv = isCsv(contentType);
+        if (!csv && !isNdjson(contentType)) {
+            throw new IllegalArgumentException("Unsupported import format, expected " + CSV + " or " + NDJSON);
+        }
+
+        String importedBy = securityUtil.getCurrentUsername();
+        // Usernames and emails already taken by earlier rows of this import
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        Map<UserImportResult.Status, Integer> totals = new HashMap<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String[] header = null;
+        if (csv) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return;
+            }
+            header = parseCsvLine(headerLine).stream()
+                    .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                    .toArray(String[]::new);
+        }
+
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+        long rowNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            chunk.add(csv ? parseCsvRow(rowNumber, header, line) : parseNdjsonRow(rowNumber, line));
+            if (chunk.size() == chunkSize) {
+                writeResults(importChunk(chunk, seenUsernames, seenEmails, importedBy), totals, out);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeResults(importChunk(chunk, seenUsernames, seenEmails, importedBy), totals, out);
+        }
+        logger.info("User import by {} finished: {}", importedBy, totals);
+    }
+
+    private List<UserImportResult> importChunk(List<ParsedRow> rows, Set<String> seenUsernames,
+            Set<String> seenEmails, String importedBy) {
+        UserImportResult[] results = new UserImportResult[rows.size()];
+
+        // Validate and resolve roles without touching the database
+        List<Integer> candidates = new ArrayList<>(rows.size());
+        Role[] roles = new Role[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ParsedRow row = rows.get(i);
+            String error = row.error() != null ? row.error() : validate(row.data());
+            if (error == null) {
+                roles[i] = resolveRole(row.data());
+                if (roles[i] == null) {
+                    error = "Role not found";
+                }
+            }
+            if (error != null) {
+                results[i] = result(row, UserImportResult.Status.INVALID, null, error);
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        // One query per unique column for the whole chunk instead of two per row
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (int i : candidates) {
+            usernames.add(rows.get(i).data().getUsername());
+            emails.add(rows.get(i).data().getEmail());
+        }
+        Set<String> existingUsernames = usernames.isEmpty() ? Set.of()
+                : new HashSet<>(userRepository.findExistingUsernames(usernames));
+        Set<String> existingEmails = emails.isEmpty() ? Set.of()
+                : new HashSet<>(userRepository.findExistingEmails(emails));
+
+        List<Integer> accepted = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            UserImportRow data = rows.get(i).data();
+            String duplicate = null;
+            if (existingUsernames.contains(data.getUsername()) || !seenUsernames.add(data.getUsername())) {
+                duplicate = "Username already exists";
+            } else if (existingEmails.contains(data.getEmail()) || !seenEmails.add(data.getEmail())) {
+                duplicate = "Email already exists";
+            }
+            if (duplicate != null) {
+                results[i] = result(rows.get(i), UserImportResult.Status.DUPLICATE, null, duplicate);
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            insert(rows, roles, accepted, results, importedBy);
+        }
+        return List.of(results);
+    }
+
+    private void insert(List<ParsedRow> rows, Role[] roles, List<Integer> accepted, UserImportResult[] results,
+            String importedBy) {
+        // Hash in parallel; the chunk only waits for the slowest hash
+        List<CompletableFuture<String>> hashes = new ArrayList<>(accepted.size());
+        for (int i : accepted) {
+            String password = rows.get(i).data().getPassword();
+            hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), hashPool));
+        }
+
+        List<String> passwords = new ArrayList<>(accepted.size());
+        List<User> users = new ArrayList<>(accepted.size());
+        for (int n = 0; n < accepted.size(); n++) {
+            int i = accepted.get(n);
+            passwords.add(hashes.get(n).join());
+            users.add(newUser(rows.get(i).data(), passwords.get(n), roles[i]));
+        }
+
+        try {
+            // Flushed as JDBC batches on commit (hibernate.jdbc.batch_size)
+            save(users);
+        } catch (RuntimeException e) {
+            // Usually a user created concurrently with the same email. Nothing of this chunk
+            // was stored, so retry it row by row and fail only the rows that fail on their own.
+            logger.warn("Could not insert a chunk of {} imported users, retrying row by row: {}",
+                    users.size(), e.getMessage());
+            for (int n = 0; n < accepted.size(); n++) {
+                int i = accepted.get(n);
+                // A fresh entity, the failed batch may have assigned an id to the old one
+                User user = newUser(rows.get(i).data(), passwords.get(n), roles[i]);
+                try {
+                    save(List.of(user));
+                } catch (RuntimeException rowError) {
+                    logger.debug("Could not insert imported row {}: {}", rows.get(i).number(),
+                            rowError.getMessage());
+                    results[i] = result(rows.get(i), UserImportResult.Status.FAILED, null,
+                            "Could not insert this row, retry it");
+                    continue;
+                }
+                created(rows.get(i), user, results, i, importedBy);
+            }
+            return;
+        }
+
+        for (int n = 0; n < accepted.size(); n++) {
+            int i = accepted.get(n);
+            created(rows.get(i), users.get(n), results, i, importedBy);
+        }
+    }
+
+    private void save(List<User> users) {
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.saveAll(users);
+            for (User user : users) {
+                skillIndex.updateAfterCommit(user.getId(), user.getSkills());
+            }
+        });
+    }
+
+    private void created(ParsedRow row, User user, UserImportResult[] results, int i, String importedBy) {
+        results[i] = result(row, UserImportResult.Status.CREATED, user.getId(), null);
+        auditService.logAction("User", user.getId(), Audited.Action.CREATE.name(), importedBy,
+                UserDTO.fromEntity(user));
+    }
+
+    private static User newUser(UserImportRow data, String password, Role role) {
+        return User.builder()
+                .username(data.getUsername())
+                .email(data.getEmail())
+                .password(password)
+                .fullName(data.getFullName())
+                .skills(data.getSkills())
+                .role(role)
+                .build();
+    }
+
+    private void writeResults(List<UserImportResult> results, Map<UserImportResult.Status, Integer> totals,
+            OutputStream out) throws IOException {
+        for (UserImportResult result : results) {
+            resultWriter.writeValue(out, result);
+            out.write('\n');
+            totals.merge(result.status(), 1, Integer::sum);
+        }
+        // Let the client see progress chunk by chunk
+        out.flush();
+    }
+
+    // Same rules as CreateUserRequest
+    private static String validate(UserImportRow row) {
+        if (row.getUsername() == null || row.getUsername().isBlank()) {
+            return "Username is required";
+        }
+        if (row.getUsername().length() < 3 || row.getUsername().length() > 50) {
+            return "Username must be between 3 and 50 characters";
+        }
+        if (row.getPassword() == null || row.getPassword().isBlank()) {
+            return "Password is required";
+        }
+        if (row.getPassword().length() < 6) {
+            return "Password must be at least 6 characters";
+        }
+        if (row.getEmail() == null || row.getEmail().isBlank()) {
+            return "Email is required";
+        }
+        int at = row.getEmail().indexOf('@');
+        if (at <= 0 || at == row.getEmail().length() - 1 || row.getEmail().chars().anyMatch(Character::isWhitespace)) {
+            return "Email should be valid";
+        }
+        if (row.getRoleId() == null && (row.getRole() == null || row.getRole().isBlank())) {
+            return "Role is required";
+        }
+        return null;
+    }
+
+    private Role resolveRole(UserImportRow row) {
+        if (row.getRoleId() != null) {
+            return roleRegistry.getById(row.getRoleId());
+        }
+        return roleRegistry.getByName(row.getRole().trim().toUpperCase(Locale.ROOT));
+    }
+
+    private ParsedRow parseNdjsonRow(long rowNumber, String line) {
+        try {
+            return new ParsedRow(rowNumber, rowReader.readValue(line), null);
+        } catch (JsonProcessingException e) {
+            return new ParsedRow(rowNumber, new UserImportRow(), "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static ParsedRow parseCsvRow(long rowNumber, String[] header, String line) {
+        UserImportRow row = new UserImportRow();
+        List<String> values;
+        try {
+            values = parseCsvLine(line);
+        } catch (IllegalArgumentException e) {
+            return new ParsedRow(rowNumber, row, e.getMessage());
+        }
+        if (values.size() != header.length) {
+            return new ParsedRow(rowNumber, row, "Expected " + header.length + " columns, found " + values.size());
+        }
+        for (int i = 0; i < header.length; i++) {
+            String value = values.get(i).isEmpty() ? null : values.get(i);
+            switch (header[i]) {
+                case "username" -> row.setUsername(value);
+                case "email" -> row.setEmail(value);
+                case "password" -> row.setPassword(value);
+                case "fullname" -> row.setFullName(value);
+                case "skills" -> row.setSkills(value);
+                case "role" -> row.setRole(value);
+                case "roleid" -> {
+                    try {
+                        row.setRoleId(value != null ? Long.valueOf(value.trim()) : null);
+                    } catch (NumberFormatException e) {
+                        return new ParsedRow(rowNumber, row, "Invalid roleId");
+                    }
+                }
+                default -> {
+                    // Unknown columns are ignored
+                }
+            }
+        }
+        return new ParsedRow(rowNumber, row, null);
+    }
+
+    /**
+     * Split one CSV line (RFC 4180 quoting, "" for a quote inside a quoted
+     * field). Fields spanning several lines are not supported.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static boolean isCsv(String contentType) {
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(CSV);
+    }
+
+    private static boolean isNdjson(String contentType) {
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(NDJSON);
+    }
+
+    private static UserImportResult result(ParsedRow row, UserImportResult.Status status, Long id, String message) {
+        return new UserImportResult(row.number(), row.data().getUsername(), status, id, message);
+    }
+
+    @PreDestroy
+    public void close() {
+        hashPool.shutdown();
+    }
+
+    // A row as read from the input, with the reason it could not be parsed if any
+    private record ParsedRow(long number, UserImportRow data, String error) {
+    }
+}
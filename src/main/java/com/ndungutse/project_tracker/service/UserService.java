@@ -1,37 +1,64 @@
 package com.ndungutse.project_tracker.service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.ndungutse.project_tracker.dto.CreateUserRequest;
+import com.ndungutse.project_tracker.dto.CursorPageResponse;
+import com.ndungutse.project_tracker.dto.OffboardingSummaryDTO;
+import com.ndungutse.project_tracker.dto.SkillMatchDTO;
 import com.ndungutse.project_tracker.dto.UpdateUserRequest;
 import com.ndungutse.project_tracker.dto.UserDTO;
+import com.ndungutse.project_tracker.dto.projection.OpenTaskCountDto;
 import com.ndungutse.project_tracker.exception.ResourceNotFoundException;
 import com.ndungutse.project_tracker.model.Role;
 import com.ndungutse.project_tracker.model.User;
-import com.ndungutse.project_tracker.repository.RoleRepository;
+import com.ndungutse.project_tracker.repository.TaskRepository;
 import com.ndungutse.project_tracker.repository.UserRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 import jakarta.transaction.Transactional;
 
 @Service
+@Timed("service.method")
 public class UserService {
+    // Keeps IN lists well below driver and planner limits
+    private static final int ID_CHUNK_SIZE = 1000;
+
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final TaskRepository taskRepository;
+    private final RoleRegistry roleRegistry;
+    private final SkillIndex skillIndex;
     private final PasswordEncoder passwordEncoder;
+    private final int maxPageSize;
 
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, TaskRepository taskRepository, RoleRegistry roleRegistry,
+            SkillIndex skillIndex, PasswordEncoder passwordEncoder,
+            @Value("${users.query.max-page-size:200}") int maxPageSize) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
+        this.taskRepository = taskRepository;
+        this.roleRegistry = roleRegistry;
+        this.skillIndex = skillIndex;
         this.passwordEncoder = passwordEncoder;
+        this.maxPageSize = maxPageSize;
     }
 
     // Create a new user
+    @CacheEvict(value = "developerWorkload", allEntries = true)
     @Transactional
+    @Audited(entityType = "User", action = Audited.Action.CREATE, id = "#result.id")
     public UserDTO createUser(CreateUserRequest request) {
         // Check if username exists
         if (userRepository.existsByUsername(request.getUsername())) {
@@ -44,27 +71,118 @@ public class UserService {
         }
 
         // Get role
-        Role role = roleRepository.findById(request.getRoleId())
-                .orElseThrow(() -> new ResourceNotFoundException("Role not found with id: " + request.getRoleId()));
+        Role role = roleRegistry.getById(request.getRoleId());
+        if (role == null) {
+            throw new ResourceNotFoundException("Role not found with id: " + request.getRoleId());
+        }
 
         // Create and save user
         User user = User.builder()
                 .username(request.getUsername())
                 .password(passwordEncoder.encode(request.getPassword()))
                 .email(request.getEmail())
+                .skills(request.getSkills())
                 .role(role)
                 .build();
 
         User savedUser = userRepository.save(user);
+        skillIndex.updateAfterCommit(savedUser.getId(), savedUser.getSkills());
         return UserDTO.fromEntity(savedUser);
     }
 
-    // Get all users
-    public List<UserDTO> getAllUsers() {
-        // List<User> users = userRepository.findAll();
-        return userRepository.findAll().stream()
-                .map(UserDTO::fromEntity)
-                .collect(Collectors.toList());
+    // Get a page of users ordered by id, optionally filtered by username and email prefix
+    public CursorPageResponse<UserDTO> getUsers(String cursor, int size, String usernamePrefix, String emailPrefix) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        long afterId = 0;
+        if (cursor != null) {
+            try {
+                afterId = Long.parseLong(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // One extra row tells whether there is a next page without counting
+        List<UserDTO> users = userRepository.findPageAfter(afterId, likePrefix(usernamePrefix),
+                likePrefix(emailPrefix), PageRequest.of(0, pageSize + 1));
+        boolean hasNext = users.size() > pageSize;
+        if (hasNext) {
+            users = users.subList(0, pageSize);
+        }
+        String nextCursor = hasNext ? String.valueOf(users.get(users.size() - 1).getId()) : null;
+        return new CursorPageResponse<>(users, nextCursor, hasNext);
+    }
+
+    // Search users by skill, with all or any of the skills, ranked by open tasks (least busy first) or by id
+    public List<SkillMatchDTO> searchBySkills(String skills, boolean matchAll, String rank, int limit) {
+        Set<String> tokens = SkillIndex.tokenize(skills);
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("At least one skill is required");
+        }
+        if (!rank.equals("openTasks") && !rank.equals("id")) {
+            throw new IllegalArgumentException("Unsupported rank: " + rank);
+        }
+        int maxResults = Math.max(1, Math.min(limit, maxPageSize));
+
+        List<Long> ids = skillIndex.find(tokens, matchAll);
+        // Open tasks are needed for every match to rank, but only for the returned ones otherwise
+        if (rank.equals("id") && ids.size() > maxResults) {
+            ids = ids.subList(0, maxResults);
+        }
+        Map<Long, Long> openTasks = countOpenTasks(ids);
+        if (rank.equals("openTasks")) {
+            ids = new ArrayList<>(ids);
+            ids.sort(Comparator.comparingLong((Long id) -> openTasks.getOrDefault(id, 0L))
+                    .thenComparing(Comparator.naturalOrder()));
+            if (ids.size() > maxResults) {
+                ids = ids.subList(0, maxResults);
+            }
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, UserDTO> users = new HashMap<>();
+        for (UserDTO user : userRepository.findDtosByIdIn(ids)) {
+            users.put(user.getId(), user);
+        }
+        List<SkillMatchDTO> matches = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            UserDTO user = users.get(id);
+            // Deleted after the index was read
+            if (user == null) {
+                continue;
+            }
+            matches.add(SkillMatchDTO.builder()
+                    .id(user.getId())
+                    .username(user.getUsername())
+                    .email(user.getEmail())
+                    .fullName(user.getFullName())
+                    .roleName(user.getRoleName())
+                    .skills(user.getSkills())
+                    .openTasks(openTasks.getOrDefault(id, 0L))
+                    .build());
+        }
+        return matches;
+    }
+
+    private Map<Long, Long> countOpenTasks(List<Long> userIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (int from = 0; from < userIds.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + ID_CHUNK_SIZE, userIds.size()));
+            for (OpenTaskCountDto count : taskRepository.countOpenTasksByUserIds(chunk)) {
+                counts.put(count.getUserId(), count.getOpenTasks());
+            }
+        }
+        return counts;
+    }
+
+    // Escape LIKE wildcards so the prefix is matched literally
+    private static String likePrefix(String prefix) {
+        if (prefix == null) {
+            return "";
+        }
+        return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_");
     }
 
     // Get user by ID
@@ -80,7 +198,9 @@ public class UserService {
     }
 
     // Update user
+    @CacheEvict(value = "developerWorkload", allEntries = true)
     @Transactional
+    @Audited(entityType = "User", action = Audited.Action.UPDATE, id = "#id")
     public Optional<UserDTO> updateUser(Long id, UpdateUserRequest request) {
         Optional<User> existingUser = userRepository.findById(id);
         if (existingUser.isEmpty()) {
@@ -112,22 +232,69 @@ public class UserService {
 
         // Update role if provided
         if (request.getRoleId() != null) {
-            Role role = roleRepository.findById(request.getRoleId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Role not found with id: " + request.getRoleId()));
+            Role role = roleRegistry.getById(request.getRoleId());
+            if (role == null) {
+                throw new ResourceNotFoundException("Role not found with id: " + request.getRoleId());
+            }
             user.setRole(role);
         }
 
+        // Update skills if provided, blank clears them
+        if (request.getSkills() != null) {
+            user.setSkills(request.getSkills().isBlank() ? null : request.getSkills());
+            skillIndex.updateAfterCommit(id, user.getSkills());
+        }
+
         User updatedUser = userRepository.save(user);
         return Optional.of(UserDTO.fromEntity(updatedUser));
     }
 
     // Delete user
+    @CacheEvict(value = "developerWorkload", allEntries = true)
     @Transactional
+    @Audited(entityType = "User", action = Audited.Action.DELETE, id = "#id")
     public void deleteUser(Long id) {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
+        // Keep the tasks, just without an assignee
+        taskRepository.unassignAll(id);
+        userRepository.deleteById(id);
+        skillIndex.updateAfterCommit(id, null);
+    }
+
+    // Offboard a user: hand the open tasks to another user (or unassign them), unassign the rest and delete the user
+    @CacheEvict(value = "developerWorkload", allEntries = true)
+    @Transactional
+    @Audited(entityType = "User", action = Audited.Action.DELETE, id = "#id")
+    public OffboardingSummaryDTO offboardUser(Long id, Long reassignToUserId) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+
+        User assignee = null;
+        if (reassignToUserId != null) {
+            if (reassignToUserId.equals(id)) {
+                throw new IllegalArgumentException("Cannot reassign tasks to the user being offboarded");
+            }
+            if (!userRepository.existsById(reassignToUserId)) {
+                throw new ResourceNotFoundException("User not found with id: " + reassignToUserId);
+            }
+            assignee = userRepository.getReferenceById(reassignToUserId);
+        }
+
+        // One UPDATE per kind of task instead of loading every task of the user
+        int reassigned = assignee != null ? taskRepository.reassignOpenTasks(id, assignee) : 0;
+        int unassigned = taskRepository.unassignAll(id);
         userRepository.deleteById(id);
+        skillIndex.updateAfterCommit(id, null);
+
+        return OffboardingSummaryDTO.builder()
+                .userId(id)
+                .username(user.getUsername())
+                .reassignedToUserId(assignee != null ? reassignToUserId : null)
+                .reassignedTasks(reassigned)
+                .unassignedTasks(unassigned)
+                .build();
     }
 
     // Check if user exists
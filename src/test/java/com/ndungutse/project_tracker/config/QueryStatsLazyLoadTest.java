@@ -0,0 +1,86 @@
+package com.ndungutse.project_tracker.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.ndungutse.project_tracker.model.Project;
+import com.ndungutse.project_tracker.model.Task;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * A request that initializes a lazy collection, run through QueryStatsFilter
+ * with the Hibernate hooks the application installs: the per-request stats
+ * and meters must show the collection fetch, and with a zero threshold every
+ * statement must reach the slow-query log.
+ */
+@DataJpaTest
+@Import(EntityLoadListener.class)
+class QueryStatsLazyLoadTest {
+    private static final String URI = "/api/v1/projects/{id}";
+
+    @TestConfiguration
+    static class QueryStatsHooks {
+        @Bean
+        HibernatePropertiesCustomizer jdbcTimingCustomizer() {
+            return new MetricsConfig().jdbcTimingCustomizer();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer queryStatsCustomizer() {
+            return new MetricsConfig().queryStatsCustomizer(false);
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(registry, 0, 10);
+
+    @Test
+    void lazyCollectionLoadIsCountedAndItsStatementsLogged() throws Exception {
+        Project project = entityManager.persist(Project.builder().name("Project").build());
+        entityManager.persist(Task.builder().title("First").project(project).build());
+        entityManager.persist(Task.builder().title("Second").project(project).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/projects/" + project.getId());
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI);
+        new QueryStatsFilter(registry, slowQueryLog, true).doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> {
+                    Project loaded = entityManager.find(Project.class, project.getId());
+                    // Touching the collection outside the query that loaded the project
+                    assertThat(loaded.getTasks()).hasSize(2);
+                });
+
+        RequestQueryStats stats = RequestQueryStats.of(request);
+        assertThat(stats.getCollectionFetches()).isEqualTo(1);
+        assertThat(stats.getLazyLoads()).containsExactly("Project.tasks");
+        // The project, then its tasks
+        assertThat(stats.getStatements()).isEqualTo(2);
+        assertThat(stats.getEntityLoads()).isEqualTo(3);
+        assertThatThrownBy(() -> stats.assertWithin(2)).isInstanceOf(AssertionError.class);
+        stats.assertWithin(2, "Project.tasks");
+
+        assertThat(registry.get("http.server.requests.collection.fetches").tag("uri", URI).summary().totalAmount())
+                .isEqualTo(1.0);
+        assertThat(slowQueryLog.recentQueries(URI))
+                .hasSize(2)
+                .anySatisfy(query -> assertThat(query.sql()).containsIgnoringCase("project_id"));
+        assertThat(registry.get("hibernate.slow.queries").counter().count()).isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,157 @@
+package com.ndungutse.project_tracker.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Request handling on virtual threads against a platform thread pool the size
+ * of Tomcat's default (200) under a mixed workload: most requests block on a
+ * remote call (Redis or MongoDB, simulated by a sleep), some hold a JDBC
+ * connection from a 10-connection pool behind the admission guard, and every
+ * request does a little CPU work. A burst of requests is submitted at once;
+ * latency is measured from submission, so time spent queued for a thread or a
+ * permit counts. Reports throughput, p50 and p99. Run with mvn -Pbenchmark test.
+ */
+@Tag("benchmark")
+class VirtualThreadBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadBenchmarkTest.class);
+
+    private static final int REQUESTS = 10_000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final int POOL_SIZE = 10;
+    private static final int PERMITS = POOL_SIZE - 2;
+    private static final double JDBC_SHARE = 0.1;
+    private static final long REMOTE_CALL_MS = 10;
+    private static final long QUERY_MS = 2;
+    private static final long ADMISSION_TIMEOUT_MS = 30_000;
+
+    @Test
+    void virtualAgainstPlatformThreads() throws Exception {
+        // Warm up both paths once
+        run("warmup", () -> Executors.newFixedThreadPool(PLATFORM_THREADS), REQUESTS / 10);
+        run("warmup", Executors::newVirtualThreadPerTaskExecutor, REQUESTS / 10);
+
+        Result platform = run("Platform threads (" + PLATFORM_THREADS + ")",
+                () -> Executors.newFixedThreadPool(PLATFORM_THREADS), REQUESTS);
+        Result virtual = run("Virtual threads", Executors::newVirtualThreadPerTaskExecutor, REQUESTS);
+
+        for (Result result : List.of(platform, virtual)) {
+            logger.info("{}: {} requests/s, p50 {} ms, p99 {} ms, {} rejected by admission",
+                    result.name(), String.format("%.0f", result.requestsPerSecond()),
+                    String.format("%.1f", result.p50Ms()), String.format("%.1f", result.p99Ms()), result.rejected());
+        }
+
+        assertThat(platform.rejected()).isZero();
+        assertThat(virtual.rejected()).isZero();
+    }
+
+    private Result run(String name, Supplier<ExecutorService> executors, int requests) throws Exception {
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(pooledDataSource(POOL_SIZE),
+                PERMITS, ADMISSION_TIMEOUT_MS);
+        Random random = new Random(42);
+        boolean[] usesJdbc = new boolean[requests];
+        for (int i = 0; i < requests; i++) {
+            usesJdbc[i] = random.nextDouble() < JDBC_SHARE;
+        }
+
+        long[] latencies = new long[requests];
+        List<Future<?>> futures = new ArrayList<>(requests);
+        long start = System.nanoTime();
+        try (ExecutorService executor = executors.get()) {
+            for (int i = 0; i < requests; i++) {
+                int request = i;
+                long submitted = System.nanoTime();
+                futures.add(executor.submit(() -> {
+                    handle(dataSource, usesJdbc[request], request);
+                    latencies[request] = System.nanoTime() - submitted;
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(name, requests * 1e9 / elapsed, latencies[requests / 2] / 1e6,
+                latencies[(int) Math.ceil(requests * 0.99) - 1] / 1e6, dataSource.getRejected());
+    }
+
+    private static void handle(DataSource dataSource, boolean usesJdbc, int request) throws Exception {
+        hash(request);
+        if (usesJdbc) {
+            try (Connection connection = dataSource.getConnection()) {
+                // Only the pool hands out connections, running a query is a wait
+                TimeUnit.MILLISECONDS.sleep(QUERY_MS);
+            }
+        } else {
+            TimeUnit.MILLISECONDS.sleep(REMOTE_CALL_MS);
+        }
+    }
+
+    // Serialization-sized CPU work
+    private static void hash(int request) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] payload = ("request-" + request + "-" + "x".repeat(1000)).getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 20; i++) {
+            payload = digest.digest(payload);
+        }
+    }
+
+    // A connection pool reduced to its bound: a fixed number of connections, waited for when all are out
+    private static DataSource pooledDataSource(int size) {
+        Semaphore connections = new Semaphore(size, true);
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] { DataSource.class },
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("getConnection")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if (!connections.tryAcquire(ADMISSION_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                        throw new SQLException("Connection is not available, request timed out");
+                    }
+                    return connection(connections);
+                });
+    }
+
+    private static Connection connection(Semaphore connections) {
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        if (!closed[0]) {
+                            closed[0] = true;
+                            connections.release();
+                        }
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private record Result(String name, double requestsPerSecond, double p50Ms, double p99Ms, long rejected) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.ndungutse.project_tracker.controller;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.ndungutse.project_tracker.exception.GlobalExceptionHandler;
+import com.ndungutse.project_tracker.service.TaskService;
+import com.ndungutse.project_tracker.service.UserService;
+
+/**
+ * Method security on the developer endpoints, with the controller proxied as
+ * in the application and the exception handler mapping denials to 403.
+ */
+@SpringJUnitConfig(DeveloperControllerTest.Config.class)
+class DeveloperControllerTest {
+
+    @Configuration
+    @EnableMethodSecurity
+    static class Config {
+        @Bean
+        UserService userService() {
+            return mock(UserService.class);
+        }
+
+        @Bean
+        TaskService taskService() {
+            return mock(TaskService.class);
+        }
+
+        @Bean
+        DeveloperController developerController(TaskService taskService, UserService userService) {
+            return new DeveloperController(taskService, userService);
+        }
+    }
+
+    @Autowired
+    private DeveloperController developerController;
+
+    @Autowired
+    private UserService userService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        reset(userService);
+        mockMvc = MockMvcBuilders.standaloneSetup(developerController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void developerCannotSearchBySkills() throws Exception {
+        authenticateAs("ROLE_DEVELOPER");
+
+        mockMvc.perform(get("/api/v1/users/search").param("skills", "java"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void managerCanSearchBySkills() throws Exception {
+        authenticateAs("ROLE_MANAGER");
+        when(userService.searchBySkills(anyString(), anyBoolean(), anyString(), anyInt())).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/v1/users/search").param("skills", "java"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void developerCannotViewWorkload() throws Exception {
+        authenticateAs("ROLE_DEVELOPER");
+
+        mockMvc.perform(get("/api/v1/users/workload"))
+                .andExpect(status().isForbidden());
+    }
+
+    private static void authenticateAs(String authority) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user", null, List.of(new SimpleGrantedAuthority(authority))));
+    }
+}
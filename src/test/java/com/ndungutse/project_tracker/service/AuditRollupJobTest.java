@@ -0,0 +1,174 @@
+package com.ndungutse.project_tracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ndungutse.project_tracker.dto.AuditStatsBucket;
+import com.ndungutse.project_tracker.model.AuditLog;
+import com.ndungutse.project_tracker.model.AuditRollup;
+import com.ndungutse.project_tracker.repository.AuditLogRepository;
+import com.ndungutse.project_tracker.repository.AuditRollupRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the rollup job against in-memory repositories and compares what it
+ * stored with counts taken directly from the raw audit logs.
+ */
+class AuditRollupJobTest {
+    private static final int LOOKBACK_HOURS = 48;
+
+    private final List<AuditLog> rawLogs = new ArrayList<>();
+    private final Map<String, AuditRollup> stored = new HashMap<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private AuditRollupJob job;
+
+    @BeforeEach
+    void setUp() {
+        AuditLogRepository auditLogRepository = mock(AuditLogRepository.class);
+        AuditRollupRepository auditRollupRepository = mock(AuditRollupRepository.class);
+
+        // What the aggregation pipeline computes, grouped in memory
+        when(auditLogRepository.countByHour(any(), any())).thenAnswer(call -> rawLogs.stream()
+                .filter(inWindow(call.getArgument(0), call.getArgument(1)))
+                .collect(Collectors.groupingBy(log -> AuditRollup.idOf(AuditRollup.Granularity.HOUR,
+                        hourOf(log), log.getEntityType(), log.getAction(), log.getUsername())))
+                .entrySet().stream()
+                .map(group -> {
+                    AuditLog first = group.getValue().get(0);
+                    return AuditRollup.builder()
+                            .id(group.getKey())
+                            .granularity(AuditRollup.Granularity.HOUR)
+                            .start(hourOf(first))
+                            .entityType(first.getEntityType())
+                            .action(first.getAction())
+                            .username(first.getUsername())
+                            .count(group.getValue().size())
+                            .build();
+                })
+                .toList());
+        when(auditLogRepository.countBetween(any(), any())).thenAnswer(call -> rawLogs.stream()
+                .filter(inWindow(call.getArgument(0), call.getArgument(1)))
+                .count());
+
+        doAnswer(call -> {
+            List<AuditRollup> rollups = call.getArgument(0);
+            rollups.forEach(rollup -> stored.put(rollup.getId(), rollup));
+            return null;
+        }).when(auditRollupRepository).replaceAll(any());
+        when(auditRollupRepository.findByGranularityAndStartGreaterThanEqualAndStartLessThan(any(), any(), any()))
+                .thenAnswer(call -> storedIn(call.getArgument(0), call.getArgument(1), call.getArgument(2)));
+        when(auditRollupRepository.sum(any(), any(), any(), anyCollection(), isNull(), isNull()))
+                .thenAnswer(call -> storedIn(call.getArgument(0), call.getArgument(1), call.getArgument(2)).stream()
+                        .collect(Collectors.groupingBy(AuditRollup::getStart,
+                                Collectors.summingLong(AuditRollup::getCount)))
+                        .entrySet().stream()
+                        .map(bucket -> AuditStatsBucket.builder().start(bucket.getKey()).count(bucket.getValue())
+                                .build())
+                        .toList());
+
+        job = new AuditRollupJob(auditLogRepository, auditRollupRepository, registry, true, LOOKBACK_HOURS);
+    }
+
+    @Test
+    void dailyRollupsMatchRawCountsPerDay() {
+        LocalDateTime now = LocalDateTime.now();
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            rawLogs.add(auditLog(now.minusMinutes(60 + random.nextInt(40 * 60)), random));
+        }
+
+        job.rollUpRecentHours();
+
+        LocalDateTime today = now.truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime firstFullDay = now.truncatedTo(ChronoUnit.HOURS).minusHours(LOOKBACK_HOURS)
+                .truncatedTo(ChronoUnit.DAYS).plusDays(1);
+        Map<String, Long> rawPerDay = rawLogs.stream()
+                .filter(inWindow(firstFullDay, today))
+                .collect(Collectors.groupingBy(log -> AuditRollup.idOf(AuditRollup.Granularity.DAY,
+                        log.getTimestamp().truncatedTo(ChronoUnit.DAYS), log.getEntityType(), log.getAction(),
+                        log.getUsername()), Collectors.counting()));
+        Map<String, Long> rolledUpPerDay = storedIn(AuditRollup.Granularity.DAY, firstFullDay, today).stream()
+                .collect(Collectors.toMap(AuditRollup::getId, AuditRollup::getCount));
+
+        assertThat(rolledUpPerDay).isEqualTo(rawPerDay);
+        assertThat(registry.get("audit.rollup.mismatch").counter().count()).isZero();
+    }
+
+    @Test
+    void rerunWithALateRecordStillMatches() {
+        LocalDateTime now = LocalDateTime.now();
+        Random random = new Random(11);
+        for (int i = 0; i < 100; i++) {
+            rawLogs.add(auditLog(now.minusMinutes(60 + random.nextInt(40 * 60)), random));
+        }
+        job.rollUpRecentHours();
+
+        // Replayed from the spool into an hour that was already rolled up
+        rawLogs.add(auditLog(now.minusHours(5), random));
+        job.rollUpRecentHours();
+
+        long rolledUpHours = storedIn(AuditRollup.Granularity.HOUR, LocalDateTime.MIN, LocalDateTime.MAX).stream()
+                .mapToLong(AuditRollup::getCount)
+                .sum();
+        assertThat(rolledUpHours).isEqualTo(rawLogs.size());
+        assertThat(registry.get("audit.rollup.mismatch").counter().count()).isZero();
+    }
+
+    @Test
+    void rollupWithoutRawRecordsIsReported() {
+        LocalDateTime now = LocalDateTime.now();
+        rawLogs.add(auditLog(now.minusHours(3), new Random(3)));
+        // A group whose records are gone is never overwritten by a rebuild
+        LocalDateTime hour = now.truncatedTo(ChronoUnit.HOURS).minusHours(2);
+        String id = AuditRollup.idOf(AuditRollup.Granularity.HOUR, hour, "Task", "DELETE", "ghost");
+        stored.put(id, AuditRollup.builder().id(id).granularity(AuditRollup.Granularity.HOUR).start(hour)
+                .entityType("Task").action("DELETE").username("ghost").count(4).build());
+
+        job.rollUpRecentHours();
+
+        assertThat(registry.get("audit.rollup.mismatch").counter().count()).isGreaterThanOrEqualTo(1.0);
+    }
+
+    private List<AuditRollup> storedIn(AuditRollup.Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        return stored.values().stream()
+                .filter(rollup -> rollup.getGranularity() == granularity)
+                .filter(rollup -> !rollup.getStart().isBefore(from) && rollup.getStart().isBefore(to))
+                .toList();
+    }
+
+    private static Predicate<AuditLog> inWindow(LocalDateTime from, LocalDateTime to) {
+        return log -> (from == null || !log.getTimestamp().isBefore(from)) && log.getTimestamp().isBefore(to);
+    }
+
+    private static LocalDateTime hourOf(AuditLog log) {
+        return log.getTimestamp().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static AuditLog auditLog(LocalDateTime timestamp, Random random) {
+        String[] entityTypes = {"Task", "Project", "User"};
+        String[] actions = {"CREATE", "UPDATE", "DELETE"};
+        AuditLog log = new AuditLog(entityTypes[random.nextInt(3)], (long) random.nextInt(50),
+                actions[random.nextInt(3)], "user" + random.nextInt(4), null);
+        log.setTimestamp(timestamp);
+        return log;
+    }
+}
@@ -0,0 +1,178 @@
+package com.ndungutse.project_tracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ndungutse.project_tracker.dto.TaskDTO;
+import com.ndungutse.project_tracker.model.AuditLog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Write path of audit snapshots before and after they were stored as embedded
+ * documents: TaskDTO serialized with writeValueAsString into the dataSnapshot
+ * string, against the encoder's cached per-type writer producing a BSON
+ * document, with a keyframe on every change and with patches in between.
+ * Each variant maps the same stream of task updates to the document Spring
+ * Data stores and reports bytes allocated per record on the calling thread,
+ * records per second and stored BSON bytes per record. Run with
+ * mvn -Pbenchmark test.
+ */
+@Tag("benchmark")
+class AuditSnapshotAllocationBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(AuditSnapshotAllocationBenchmarkTest.class);
+
+    private static final int TASKS = 200;
+    private static final int CHANGES_PER_TASK = 50;
+    private static final int WARMUP_ROUNDS = 3;
+
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final MappingMongoConverter converter = converter();
+
+    @Test
+    void allocationAndStoredSize() {
+        List<AuditEvent> events = taskUpdates();
+
+        Result jsonText = measure("JSON text", events, event -> {
+            try {
+                // The write path before snapshots were embedded documents
+                AuditLog auditLog = new AuditLog(event.entityType(), event.entityId(), event.action(),
+                        event.username(), objectMapper.writeValueAsString(event.state()));
+                auditLog.setId(event.id());
+                auditLog.setTimestamp(event.timestamp());
+                return auditLog;
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        AuditSnapshotEncoder everyChangeFull = encoder(1);
+        Result document = measure("Embedded document", events, everyChangeFull::toAuditLog);
+        AuditSnapshotEncoder withPatches = encoder(20);
+        Result patches = measure("Document with patches", events, withPatches::toAuditLog);
+
+        for (Result result : List.of(jsonText, document, patches)) {
+            logger.info("{}: {} B allocated/record, {} records/s, {} B stored/record",
+                    result.name(), result.allocatedPerRecord(), String.format("%.0f", result.recordsPerSecond()),
+                    result.storedPerRecord());
+        }
+
+        assertThat(patches.storedPerRecord()).isLessThan(jsonText.storedPerRecord());
+    }
+
+    // Warm up the path first, then measure one pass over every event
+    private Result measure(String name, List<AuditEvent> events, Function<AuditEvent, AuditLog> encode) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (AuditEvent event : events) {
+                converter.write(encode.apply(event), new Document());
+            }
+        }
+
+        long storedBytes = 0;
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        List<Document> stored = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            Document document = new Document();
+            converter.write(encode.apply(event), document);
+            stored.add(document);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        // Sized after the timed pass so BSON encoding is not counted as write path allocation
+        for (Document document : stored) {
+            storedBytes += new RawBsonDocument(document, new DocumentCodec()).getByteBuffer().remaining();
+        }
+        return new Result(name, allocated / events.size(), events.size() * 1e9 / elapsed,
+                storedBytes / events.size());
+    }
+
+    private AuditSnapshotEncoder encoder(int keyframeInterval) {
+        return new AuditSnapshotEncoder(objectMapper, new SimpleMeterRegistry(), keyframeInterval, TASKS);
+    }
+
+    // A create and then one-field updates per task, interleaved across tasks as requests would be
+    private static List<AuditEvent> taskUpdates() {
+        Random random = new Random(42);
+        List<TaskDTO> tasks = new ArrayList<>();
+        List<AuditEvent> events = new ArrayList<>();
+        LocalDateTime timestamp = LocalDateTime.of(2025, 6, 1, 9, 0);
+        for (long id = 1; id <= TASKS; id++) {
+            TaskDTO task = new TaskDTO();
+            task.setId(id);
+            task.setTitle("Task " + id);
+            task.setDescription("Synthetic task used to measure audit storage. ".repeat(6));
+            task.setDueDate(LocalDate.of(2025, 7, 1).plusDays(id % 30));
+            task.setProjectId(id % 10);
+            task.setUserId(id % 25);
+            tasks.add(task);
+            events.add(event(task, "CREATE", timestamp));
+        }
+        for (int change = 1; change < CHANGES_PER_TASK; change++) {
+            for (TaskDTO task : tasks) {
+                switch (random.nextInt(4)) {
+                    case 0 -> task.setStatus(!task.isStatus());
+                    case 1 -> task.setTitle("Task " + task.getId() + " rev " + change);
+                    case 2 -> task.setDueDate(task.getDueDate().plusDays(1));
+                    default -> task.setUserId((long) random.nextInt(25));
+                }
+                timestamp = timestamp.plusSeconds(1);
+                events.add(event(task, "UPDATE", timestamp));
+            }
+        }
+        return events;
+    }
+
+    // The service returns a new DTO per request, so every event holds its own copy
+    private static AuditEvent event(TaskDTO task, String action, LocalDateTime timestamp) {
+        TaskDTO copy = new TaskDTO();
+        copy.setId(task.getId());
+        copy.setTitle(task.getTitle());
+        copy.setDescription(task.getDescription());
+        copy.setStatus(task.isStatus());
+        copy.setDueDate(task.getDueDate());
+        copy.setProjectId(task.getProjectId());
+        copy.setUserId(task.getUserId());
+        return new AuditEvent(new ObjectId().toHexString(), "Task", task.getId(), action, "user", timestamp, copy);
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    private record Result(String name, long allocatedPerRecord, double recordsPerSecond, long storedPerRecord) {
+    }
+}
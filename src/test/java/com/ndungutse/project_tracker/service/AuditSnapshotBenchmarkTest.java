@@ -0,0 +1,141 @@
+package com.ndungutse.project_tracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ndungutse.project_tracker.model.AuditLog;
+import com.ndungutse.project_tracker.repository.AuditLogRepository;
+import com.ndungutse.project_tracker.repository.AuditRollupRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Storage and reconstruction cost of delta-encoded snapshots on synthetic task
+ * histories: every entity is created and then updated one random field at a
+ * time. Compares the BSON bytes stored with JSON Patch and keyframes against
+ * a full snapshot per record (as JSON text, the encoding before patches, and
+ * as an embedded document), and times rebuilding the newest version of each
+ * entity through AuditService.reconstructSnapshot. Run with mvn -Pbenchmark test.
+ */
+@Tag("benchmark")
+class AuditSnapshotBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(AuditSnapshotBenchmarkTest.class);
+
+    private static final int ENTITIES = 200;
+    private static final int CHANGES_PER_ENTITY = 100;
+    private static final int KEYFRAME_INTERVAL = 20;
+    private static final int RECONSTRUCTION_ROUNDS = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void storageAndReconstruction() {
+        AuditSnapshotEncoder encoder = new AuditSnapshotEncoder(objectMapper, new SimpleMeterRegistry(),
+                KEYFRAME_INTERVAL, ENTITIES);
+        Map<String, AuditLog> stored = new HashMap<>();
+        Map<String, JsonNode> newestStates = new HashMap<>();
+        long jsonTextBytes = 0;
+        long fullDocumentBytes = 0;
+        long deltaBytes = 0;
+
+        Random random = new Random(42);
+        for (long entity = 1; entity <= ENTITIES; entity++) {
+            ObjectNode state = initialState(entity);
+            String newestId = null;
+            for (int change = 0; change < CHANGES_PER_ENTITY; change++) {
+                if (change > 0) {
+                    changeOneField(state, random, change);
+                }
+                JsonNode snapshot = state.deepCopy();
+                AuditLog auditLog = new AuditLog("Task", entity, change == 0 ? "CREATE" : "UPDATE", "user", null);
+                auditLog.setId(entity + "-" + change);
+                encoder.encode(auditLog, snapshot);
+                stored.put(auditLog.getId(), auditLog);
+                newestId = auditLog.getId();
+
+                jsonTextBytes += bsonBytes(new Document("dataSnapshot", snapshot.toString()));
+                fullDocumentBytes += bsonBytes(new Document("snapshot", BsonSnapshots.toDocument(snapshot)));
+                deltaBytes += bsonBytes(new Document("snapshot", auditLog.getSnapshot())
+                        .append("patch", auditLog.getPatch())
+                        .append("baseId", auditLog.getBaseId())
+                        .append("changedFields", auditLog.getChangedFields()));
+            }
+            newestStates.put(newestId, state.deepCopy());
+        }
+
+        AuditLogRepository repository = mock(AuditLogRepository.class);
+        when(repository.findById(anyString())).thenAnswer(call -> Optional.ofNullable(stored.get(call.getArgument(0))));
+        AuditService auditService = new AuditService(repository, mock(AuditRollupRepository.class),
+                mock(AuditWriter.class), mock(AuditTimelineCache.class), objectMapper, 500, 1000);
+
+        // The newest record of an entity is the longest chain, up to KEYFRAME_INTERVAL - 1 patches
+        List<String> newestIds = new ArrayList<>(newestStates.keySet());
+        for (String id : newestIds) {
+            assertThat(auditService.reconstructSnapshot(id)).isEqualTo(newestStates.get(id));
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < RECONSTRUCTION_ROUNDS; round++) {
+            for (String id : newestIds) {
+                auditService.reconstructSnapshot(id);
+            }
+        }
+        double microsPerReconstruction = (System.nanoTime() - start) / 1000.0
+                / (RECONSTRUCTION_ROUNDS * newestIds.size());
+
+        int records = ENTITIES * CHANGES_PER_ENTITY;
+        logger.info("{} records: full JSON text {} B/record, full document {} B/record, "
+                + "patches with a keyframe every {} {} B/record ({}% of JSON text)",
+                records, jsonTextBytes / records, fullDocumentBytes / records, KEYFRAME_INTERVAL,
+                deltaBytes / records, 100 * deltaBytes / jsonTextBytes);
+        logger.info("Rebuilding the newest version: {} us per entity (repository lookups included)",
+                String.format("%.1f", microsPerReconstruction));
+
+        assertThat(deltaBytes).isLessThan(jsonTextBytes);
+    }
+
+    private ObjectNode initialState(long entity) {
+        return objectMapper.createObjectNode()
+                .put("id", entity)
+                .put("title", "Task " + entity)
+                .put("description", "Synthetic task used to measure audit storage. ".repeat(6))
+                .put("status", false)
+                .put("dueDate", LocalDate.of(2025, 1, 1).plusDays(entity).toString())
+                .put("projectId", entity % 10)
+                .put("userId", entity % 25);
+    }
+
+    // The kind of edit a PATCH /tasks makes: one field at a time
+    private static void changeOneField(ObjectNode state, Random random, int change) {
+        switch (random.nextInt(4)) {
+            case 0 -> state.put("status", !state.get("status").booleanValue());
+            case 1 -> state.put("title", "Task " + state.get("id").longValue() + " rev " + change);
+            case 2 -> state.put("dueDate", LocalDate.parse(state.get("dueDate").textValue()).plusDays(1).toString());
+            default -> state.put("userId", random.nextInt(25));
+        }
+    }
+
+    private static long bsonBytes(Document document) {
+        return new RawBsonDocument(document, new DocumentCodec()).getByteBuffer().remaining();
+    }
+}
@@ -0,0 +1,98 @@
+package com.ndungutse.project_tracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ndungutse.project_tracker.model.AuditLog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuditSnapshotEncoderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AuditSnapshotEncoder encoder =
+            new AuditSnapshotEncoder(objectMapper, new SimpleMeterRegistry(), 20, 100);
+
+    private AuditLog encode(String id, String action, String state) throws Exception {
+        AuditLog auditLog = new AuditLog("Task", 1L, action, "user", null);
+        auditLog.setId(id);
+        JsonNode tree = objectMapper.readTree(state.replace('\'', '"'));
+        encoder.encode(auditLog, tree);
+        return auditLog;
+    }
+
+    @Test
+    void updatesArePatchesAgainstThePreviousRecord() throws Exception {
+        encode("a1", "CREATE", "{'title':'a'}");
+
+        AuditLog update = encode("a2", "UPDATE", "{'title':'b'}");
+
+        assertThat(update.getEncoding()).isEqualTo(AuditLog.ENCODING_JSON_PATCH);
+        assertThat(update.getBaseId()).isEqualTo("a1");
+        assertThat(update.getChangedFields()).containsExactly("title");
+    }
+
+    @Test
+    void updateAfterAFailedWriteIsAKeyframe() throws Exception {
+        encode("a1", "CREATE", "{'title':'a'}");
+        AuditLog lost = encode("a2", "UPDATE", "{'title':'b'}");
+
+        encoder.forget(List.of(lost));
+        AuditLog next = encode("a3", "UPDATE", "{'title':'c'}");
+
+        assertThat(next.getEncoding()).isEqualTo(AuditLog.ENCODING_FULL);
+        assertThat(next.getBaseId()).isNull();
+    }
+
+    @Test
+    void keyframeIntervalForcesAFullSnapshot() throws Exception {
+        AuditSnapshotEncoder everyOther = new AuditSnapshotEncoder(objectMapper, new SimpleMeterRegistry(), 2, 100);
+        AuditLog create = new AuditLog("Task", 1L, "CREATE", "user", null);
+        create.setId("a1");
+        everyOther.encode(create, objectMapper.readTree("{\"n\":1}"));
+
+        AuditLog first = new AuditLog("Task", 1L, "UPDATE", "user", null);
+        first.setId("a2");
+        everyOther.encode(first, objectMapper.readTree("{\"n\":2}"));
+        AuditLog second = new AuditLog("Task", 1L, "UPDATE", "user", null);
+        second.setId("a3");
+        everyOther.encode(second, objectMapper.readTree("{\"n\":3}"));
+
+        assertThat(first.getEncoding()).isEqualTo(AuditLog.ENCODING_JSON_PATCH);
+        assertThat(second.getEncoding()).isEqualTo(AuditLog.ENCODING_FULL);
+    }
+
+    @Test
+    void patchesStoreLessThanFullSnapshots() {
+        AuditSnapshotEncoder fullOnly = new AuditSnapshotEncoder(objectMapper, new SimpleMeterRegistry(), 1, 100);
+
+        assertThat(storedBytes(encoder)).isLessThan(storedBytes(fullOnly) / 2);
+    }
+
+    // Ten single-field updates of a task with a long description, in BSON bytes as stored
+    private long storedBytes(AuditSnapshotEncoder target) {
+        ObjectNode state = objectMapper.createObjectNode()
+                .put("title", "Task")
+                .put("description", "x".repeat(500))
+                .put("status", false);
+        long bytes = 0;
+        for (int i = 0; i < 10; i++) {
+            state.put("title", "Task " + i);
+            AuditLog auditLog = new AuditLog("Task", 2L, i == 0 ? "CREATE" : "UPDATE", "user", null);
+            auditLog.setId("s" + i);
+            target.encode(auditLog, state.deepCopy());
+
+            Document stored = new Document("snapshot", auditLog.getSnapshot()).append("patch", auditLog.getPatch());
+            bytes += new RawBsonDocument(stored, new DocumentCodec()).getByteBuffer().remaining();
+        }
+        return bytes;
+    }
+}
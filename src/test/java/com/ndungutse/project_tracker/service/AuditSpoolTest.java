@@ -0,0 +1,157 @@
+package com.ndungutse.project_tracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ndungutse.project_tracker.model.AuditLog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuditSpoolTest {
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void corruptRecordAtTheTailIsSkippedAndCounted() throws IOException {
+        spoolAndClose(auditLog("a"), auditLog("b"), auditLog("c"));
+        Path segment = onlySegment();
+        // Flip a byte in the payload of the last record
+        long last = frameOffsets(segment).get(2);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, last + 12);
+            one.put(0, (byte) (one.get(0) ^ 0x5A)).rewind();
+            channel.write(one, last + 12);
+        }
+
+        AuditSpool spool = reopen();
+        List<String> replayed = new ArrayList<>();
+        spool.replay(10, batch -> batch.forEach(auditLog -> replayed.add(auditLog.getId())));
+
+        assertThat(replayed).containsExactly("a", "b");
+        assertThat(registry.get("audit.spool.corrupt").counter().count()).isEqualTo(1.0);
+        assertThat(spool.backlog()).isZero();
+        assertThat(segment).doesNotExist();
+    }
+
+    @Test
+    void truncatedTailIsDroppedOnLoadAndReplay() throws IOException {
+        spoolAndClose(auditLog("a"), auditLog("b"), auditLog("c"));
+        Path segment = onlySegment();
+        // Cut the file in the middle of the last record's payload, as a torn write would
+        long last = frameOffsets(segment).get(2);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(last + 10);
+        }
+
+        AuditSpool spool = reopen();
+        assertThat(spool.backlog()).isEqualTo(2);
+
+        List<String> replayed = new ArrayList<>();
+        assertThat(spool.replay(10, batch -> batch.forEach(auditLog -> replayed.add(auditLog.getId()))))
+                .isEqualTo(2);
+        assertThat(replayed).containsExactly("a", "b");
+        // A short frame is the end of the segment, not a checksum failure
+        assertThat(registry.get("audit.spool.corrupt").counter().count()).isZero();
+    }
+
+    @Test
+    void segmentReplayedAgainAfterAFailureDoesNotDuplicateRecords() throws IOException {
+        // "b" was spooled twice, e.g. by a retried write
+        spoolAndClose(auditLog("a"), auditLog("b"), auditLog("b"), auditLog("c"));
+        AuditSpool spool = reopen();
+
+        // The store is keyed by id, as MongoDB is by _id
+        Map<String, AuditLog> store = new LinkedHashMap<>();
+        List<String> accepted = new ArrayList<>();
+        int[] batches = {0};
+        assertThatThrownBy(() -> spool.replay(2, batch -> {
+            if (++batches[0] == 2) {
+                throw new IllegalStateException("MongoDB is down");
+            }
+            batch.forEach(auditLog -> store.put(auditLog.getId(), auditLog));
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(spool.backlog()).isEqualTo(4);
+        assertThat(onlySegment()).exists();
+
+        spool.replay(2, batch -> batch.forEach(auditLog -> {
+            accepted.add(auditLog.getId());
+            store.put(auditLog.getId(), auditLog);
+        }));
+
+        assertThat(accepted).containsExactly("a", "b", "c");
+        assertThat(store).containsOnlyKeys("a", "b", "c");
+        assertThat(spool.backlog()).isZero();
+        assertThat(segments()).isEmpty();
+    }
+
+    private void spoolAndClose(AuditLog... auditLogs) throws IOException {
+        AuditSpool spool = new AuditSpool(objectMapper, new SimpleMeterRegistry(), directory.toString(), SEGMENT_SIZE);
+        spool.load();
+        spool.append(List.of(auditLogs));
+        spool.close();
+    }
+
+    private AuditSpool reopen() throws IOException {
+        AuditSpool spool = new AuditSpool(objectMapper, registry, directory.toString(), SEGMENT_SIZE);
+        spool.load();
+        return spool;
+    }
+
+    private static AuditLog auditLog(String id) {
+        AuditLog auditLog = new AuditLog("Task", 1L, "UPDATE", "user", "{\"id\":1,\"title\":\"Task " + id + "\"}");
+        auditLog.setId(id);
+        return auditLog;
+    }
+
+    private Path onlySegment() throws IOException {
+        List<Path> segments = segments();
+        assertThat(segments).hasSize(1);
+        return segments.get(0);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg")).toList();
+        }
+    }
+
+    // Start of every [length][CRC32][JSON] frame in a segment
+    private static List<Long> frameOffsets(Path segment) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        List<Long> offsets = new ArrayList<>();
+        while (buffer.remaining() >= 8) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length <= 0) {
+                break;
+            }
+            offsets.add((long) start);
+            buffer.position(start + 8 + length);
+        }
+        return offsets;
+    }
+}
@@ -0,0 +1,116 @@
+package com.ndungutse.project_tracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+class JsonPatchTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonNode json(String text) throws Exception {
+        return objectMapper.readTree(text.replace('\'', '"'));
+    }
+
+    @Test
+    void diffOfEqualDocumentsIsEmpty() throws Exception {
+        JsonNode document = json("{'id':1,'title':'a','tags':['x','y']}");
+
+        assertThat(JsonPatch.diff(document, document.deepCopy())).isEmpty();
+    }
+
+    @Test
+    void diffProducesAddRemoveAndReplace() throws Exception {
+        JsonNode source = json("{'id':1,'title':'a','description':'d'}");
+        JsonNode target = json("{'id':1,'title':'b','status':true}");
+
+        ArrayNode patch = JsonPatch.diff(source, target);
+
+        assertThat(patch).containsExactlyInAnyOrder(
+                json("{'op':'remove','path':'/description'}"),
+                json("{'op':'replace','path':'/title','value':'b'}"),
+                json("{'op':'add','path':'/status','value':true}"));
+    }
+
+    @Test
+    void nestedObjectsAreDiffedFieldByFieldAndArraysReplacedWhole() throws Exception {
+        JsonNode source = json("{'role':{'id':1,'name':'DEV'},'skills':['java']}");
+        JsonNode target = json("{'role':{'id':1,'name':'ADMIN'},'skills':['java','go']}");
+
+        ArrayNode patch = JsonPatch.diff(source, target);
+
+        assertThat(patch).containsExactly(
+                json("{'op':'replace','path':'/role/name','value':'ADMIN'}"),
+                json("{'op':'replace','path':'/skills','value':['java','go']}"));
+    }
+
+    @Test
+    void applyOfDiffRebuildsTarget() throws Exception {
+        JsonNode source = json("{'id':1,'title':'a','role':{'id':1,'name':'DEV'},'old':null}");
+        JsonNode target = json("{'id':1,'title':'b','role':{'id':2,'name':'DEV','extra':[1,2]},'new':'x'}");
+
+        assertThat(JsonPatch.apply(source, JsonPatch.diff(source, target))).isEqualTo(target);
+    }
+
+    @Test
+    void applyDoesNotModifyTheInput() throws Exception {
+        JsonNode source = json("{'title':'a'}");
+
+        JsonPatch.apply(source, json("[{'op':'replace','path':'/title','value':'b'}]"));
+
+        assertThat(source).isEqualTo(json("{'title':'a'}"));
+    }
+
+    @Test
+    void pointerTokensAreEscaped() throws Exception {
+        JsonNode source = json("{'a/b':1,'c~d':1}");
+        JsonNode target = json("{'a/b':2,'c~d':2}");
+
+        ArrayNode patch = JsonPatch.diff(source, target);
+
+        assertThat(patch).containsExactly(
+                json("{'op':'replace','path':'/a~1b','value':2}"),
+                json("{'op':'replace','path':'/c~0d','value':2}"));
+        assertThat(JsonPatch.apply(source, patch)).isEqualTo(target);
+        assertThat(JsonPatch.changedFields(patch)).containsExactly("a/b", "c~d");
+    }
+
+    @Test
+    void applySupportsArrayIndexesAndAppend() throws Exception {
+        JsonNode document = json("{'items':[1,2,3]}");
+        JsonNode patch = json("[{'op':'add','path':'/items/1','value':9},"
+                + "{'op':'add','path':'/items/-','value':4},"
+                + "{'op':'replace','path':'/items/0','value':0},"
+                + "{'op':'remove','path':'/items/2'}]");
+
+        assertThat(JsonPatch.apply(document, patch)).isEqualTo(json("{'items':[0,9,3,4]}"));
+    }
+
+    @Test
+    void replacingTheRootReplacesTheDocument() throws Exception {
+        JsonNode patch = json("[{'op':'replace','path':'','value':{'id':2}}]");
+
+        assertThat(JsonPatch.apply(json("{'id':1}"), patch)).isEqualTo(json("{'id':2}"));
+    }
+
+    @Test
+    void changedFieldsAreDistinctTopLevelFieldsInOrder() throws Exception {
+        JsonNode patch = json("[{'op':'replace','path':'/role/name'},{'op':'add','path':'/title'},"
+                + "{'op':'remove','path':'/role/id'}]");
+
+        assertThat(JsonPatch.changedFields(patch)).containsExactly("role", "title");
+    }
+
+    @Test
+    void unsupportedOperationsAndMissingPathsAreRejected() throws Exception {
+        assertThatThrownBy(() -> JsonPatch.apply(json("{'a':1}"), json("[{'op':'move','path':'/a'}]")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> JsonPatch.apply(json("{'a':1}"),
+                json("[{'op':'replace','path':'/missing/b','value':1}]")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
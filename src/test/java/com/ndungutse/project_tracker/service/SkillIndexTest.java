@@ -0,0 +1,58 @@
+package com.ndungutse.project_tracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.ndungutse.project_tracker.repository.UserRepository;
+
+class SkillIndexTest {
+    private final SkillIndex index = new SkillIndex(mock(UserRepository.class), mock(StringRedisTemplate.class));
+
+    @Test
+    void tokenizeNormalizesCaseAndWhitespace() {
+        assertThat(SkillIndex.tokenize(" Spring  Boot, JAVA ,,java"))
+                .containsExactly("spring boot", "java");
+    }
+
+    @Test
+    void tokenizeOfNullIsEmpty() {
+        assertThat(SkillIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void findMatchesAllOrAnySkillInIdOrder() {
+        index.updateAfterCommit(7L, "java, sql");
+        index.updateAfterCommit(3L, "java");
+        index.updateAfterCommit(5L, "sql");
+
+        assertThat(index.find(List.of("java", "sql"), true)).containsExactly(7L);
+        assertThat(index.find(List.of("java", "sql"), false)).containsExactly(3L, 5L, 7L);
+        assertThat(index.find(List.of("java", "go"), true)).isEmpty();
+    }
+
+    @Test
+    void idsAboveIntRangeAreIndexed() {
+        long id = Integer.MAX_VALUE + 10L;
+        index.updateAfterCommit(id, "java");
+
+        assertThat(index.find(List.of("java"), true)).containsExactly(id);
+    }
+
+    @Test
+    void updateReplacesAndDeleteRemovesSkills() {
+        index.updateAfterCommit(1L, "java");
+        index.updateAfterCommit(1L, "sql");
+
+        assertThat(index.find(List.of("java"), false)).isEmpty();
+        assertThat(index.find(List.of("sql"), false)).containsExactly(1L);
+
+        index.updateAfterCommit(1L, null);
+
+        assertThat(index.find(List.of("sql"), false)).isEmpty();
+    }
+}
@@ -0,0 +1,61 @@
+package com.ndungutse.project_tracker.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.ndungutse.project_tracker.dto.TaskDTO;
+import com.ndungutse.project_tracker.dto.mapper.ProjectMapper;
+import com.ndungutse.project_tracker.dto.mapper.TaskMapper;
+import com.ndungutse.project_tracker.exception.ResourceNotFoundException;
+import com.ndungutse.project_tracker.repository.TaskRepository;
+import com.ndungutse.project_tracker.security.SecurityUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TaskServiceTest {
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final TaskService taskService = new TaskService(taskRepository, mock(ProjectService.class),
+            mock(UserService.class), mock(TaskMapper.class), new SimpleMeterRegistry(), mock(ProjectMapper.class),
+            new SecurityUtil());
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void authenticateAs(String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user", null, List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+    }
+
+    @Test
+    void roleThatCannotUpdateTasksGets403EvenForAMissingTask() {
+        authenticateAs("CONTRACTOR");
+
+        assertThatThrownBy(() -> taskService.update(404L, new TaskDTO()))
+                .isInstanceOf(AccessDeniedException.class);
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void roleThatCanUpdateTasksGets404ForAMissingTask() {
+        authenticateAs("DEVELOPER");
+        when(taskRepository.findById(any())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> taskService.update(404L, new TaskDTO()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ndungutse.project_tracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.ndungutse.project_tracker.dto.TaskDTO;
+import com.ndungutse.project_tracker.dto.mapper.ProjectMapper;
+import com.ndungutse.project_tracker.dto.mapper.TaskMapperImpl;
+import com.ndungutse.project_tracker.model.Project;
+import com.ndungutse.project_tracker.model.Role;
+import com.ndungutse.project_tracker.model.Task;
+import com.ndungutse.project_tracker.model.User;
+import com.ndungutse.project_tracker.repository.TaskRepository;
+import com.ndungutse.project_tracker.security.CustomUserDetails;
+import com.ndungutse.project_tracker.security.SecurityUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TaskUpdateStatementCountTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void patchByTheAssignedDeveloperLoadsTheTaskOnce() {
+        Role role = entityManager.persist(Role.builder().roleName("DEVELOPER").build());
+        User developer = entityManager.persist(User.builder()
+                .username("dev")
+                .password("secret")
+                .email("dev@example.com")
+                .role(role)
+                .build());
+        Project project = entityManager.persist(Project.builder().name("Project").build());
+        Task task = entityManager.persist(Task.builder()
+                .title("Before")
+                .project(project)
+                .assignedUser(developer)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        CustomUserDetails principal = new CustomUserDetails(developer);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        TaskService taskService = new TaskService(taskRepository, mock(ProjectService.class),
+                mock(UserService.class), new TaskMapperImpl(), new SimpleMeterRegistry(), mock(ProjectMapper.class),
+                new SecurityUtil());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        TaskDTO patch = new TaskDTO();
+        patch.setTitle("After");
+        taskService.update(task.getId(), patch);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityStatistics(Task.class.getName()).getLoadCount()).isEqualTo(1);
+        // One select for the load and authorization, one update
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ndungutse.project_tracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class UserImportServiceTest {
+
+    @Test
+    void splitsPlainFields() {
+        assertThat(UserImportService.parseCsvLine("alice,alice@example.com,,DEVELOPER"))
+                .containsExactly("alice", "alice@example.com", "", "DEVELOPER");
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndEscapedQuotes() {
+        assertThat(UserImportService.parseCsvLine("bob,\"Java, SQL\",\"say \"\"hi\"\"\""))
+                .containsExactly("bob", "Java, SQL", "say \"hi\"");
+    }
+
+    @Test
+    void trailingCommaIsAnEmptyLastField() {
+        assertThat(UserImportService.parseCsvLine("a,")).containsExactly("a", "");
+    }
+
+    @Test
+    void unterminatedQuoteIsRejected() {
+        assertThatThrownBy(() -> UserImportService.parseCsvLine("a,\"b"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unterminated quoted field");
+    }
+}